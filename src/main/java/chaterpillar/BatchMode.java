@@ -0,0 +1,100 @@
+package chaterpillar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import chaterpillar.commands.BatchRunner;
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * Runs a script of commands on the saved list of tasks without the GUI,
+ * started with <code>--batch</code>:
+ *
+ * <pre>--batch {file|-} [--save-every N] [--continue] [--quiet]</pre>
+ *
+ * <p>A file of <code>-</code> reads the commands from standard input. The
+ * replies are printed unless <code>--quiet</code> is given, and the summary,
+ * with the number of commands run each second, is printed to standard error
+ * so that it does not mix with them.
+ *
+ * @author marclamp
+ */
+public class BatchMode {
+    public static final String BATCH_FLAG = "--batch";
+    private static final String USAGE = "Usage: " + BATCH_FLAG
+                                        + " {file|-} [--save-every N] [--continue] [--quiet]";
+
+    /**
+     * Runs the script given by the arguments.
+     *
+     * @param args arguments from the command line, starting with <code>--batch</code>.
+     */
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs the script given by the arguments.
+     *
+     * @param args arguments from the command line, starting with <code>--batch</code>.
+     * @return exit status: 0 if every command succeeded, 1 if any failed, 2 if the
+     *     script could not be run.
+     */
+    public static int run(String[] args) {
+        String fileName = null;
+        int saveEvery = BatchRunner.SAVE_AT_END;
+        boolean isStoppedByError = true;
+        boolean isQuiet = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                case BATCH_FLAG:
+                    fileName = args[++i];
+                    break;
+                case "--save-every":
+                    saveEvery = Integer.parseInt(args[++i]);
+                    break;
+                case "--continue":
+                    isStoppedByError = false;
+                    break;
+                case "--quiet":
+                    isQuiet = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException(args[i]);
+                }
+            }
+            if (fileName == null) {
+                throw new IllegalArgumentException();
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        try (BufferedReader script = fileName.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(fileName))) {
+            Storage storage = new Storage();
+            TaskList tasks = storage.loadFromFile();
+            BatchRunner.Summary summary = new BatchRunner(saveEvery, isStoppedByError)
+                    .run(script, tasks, new Ui(isQuiet), storage);
+            storage.close();
+            System.err.println(summary);
+            return summary.getErrorCount() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Could not open the script " + fileName + ".");
+            return 2;
+        } catch (ChaterpillarException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        }
+    }
+}
@@ -3,32 +3,41 @@ package chaterpillar;
 import chaterpillar.commands.Command;
 import chaterpillar.exceptions.ChaterpillarException;
 import chaterpillar.parser.Parser;
-import chaterpillar.storage.Storage;
+import chaterpillar.storage.StorageRegistry;
 import chaterpillar.tasks.TaskList;
 import chaterpillar.ui.Ui;
 import javafx.util.Pair;
 
 /**
- * Main class for Chaterpillar chatbot.
+ * Main class for Chaterpillar chatbot. Each user has their own list of tasks,
+ * kept by a <code>StorageRegistry</code>.
  *
  * @author marclamp
  */
 public class Chaterpillar {
+    /** Id of the user whose list is saved in <code>Storage.CHATBOT_FILE_NAME</code>. */
+    public static final String DEFAULT_USER_ID = "history";
     private static final String GREETING_MESSAGE = "Hello! I'm Chaterpillar!\n"
                                                    + "What can I do for you?";
-    private final Storage storage;
-    private final TaskList tasks;
-    private final Ui ui;
+    private final StorageRegistry registry;
 
     /**
-     * Basic constructor for this class
+     * Basic constructor for this class, which loads the list of the default user.
      *
      * @throws ChaterpillarException custom <code>Exception</code> for this application.
      */
     public Chaterpillar() throws ChaterpillarException {
-        ui = new Ui();
-        storage = new Storage();
-        tasks = storage.loadFromFile();
+        this(new StorageRegistry());
+        registry.release(registry.get(DEFAULT_USER_ID));
+    }
+
+    /**
+     * Overloaded constructor that serves the users kept by the given registry.
+     *
+     * @param registry registry of the lists of tasks of each user.
+     */
+    public Chaterpillar(StorageRegistry registry) {
+        this.registry = registry;
     }
 
     /**
@@ -48,9 +57,38 @@ public class Chaterpillar {
      * @throws ChaterpillarException custom <code>Exception</code> for this application.
      */
     public Pair<String, Boolean> getResponse(String input) throws ChaterpillarException {
-        Command command = Parser.parse(input);
-        String response = command.execute(tasks, ui, storage);
-        boolean hasExited = command.hasExited();
-        return new Pair<>(response, hasExited);
+        return getResponse(DEFAULT_USER_ID, input);
+    }
+
+    /**
+     * Returns the appropriate response from a given input of the specified user,
+     * tagged with exit status.
+     *
+     * @param userId id of the user whose list of tasks is used.
+     * @param input command from user.
+     * @return response of the chatbot and exit status.
+     * @throws ChaterpillarException custom <code>Exception</code> for this application.
+     */
+    public Pair<String, Boolean> getResponse(String userId, String input) throws ChaterpillarException {
+        StorageRegistry.Entry entry = registry.get(userId);
+        try {
+            Command command = Parser.parse(input);
+            TaskList tasks = entry.getTasks();
+            Ui ui = entry.getUi();
+            long changeCount = tasks.getChangeCount();
+            String response;
+            try {
+                response = command.executeAsEdit(tasks, ui, entry.getStorage());
+            } finally {
+                if (tasks.getChangeCount() != changeCount) {
+                    // the pages left of the last list shown are out of date
+                    ui.setNextPage(null);
+                }
+            }
+            boolean hasExited = command.hasExited();
+            return new Pair<>(response, hasExited);
+        } finally {
+            registry.release(entry);
+        }
     }
 }
@@ -0,0 +1,173 @@
+package chaterpillar.commands;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.parser.Parser;
+import chaterpillar.storage.DurabilityMode;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * Runs a script of commands, one per line, through <code>Parser.parse</code>.
+ * Saving is held back until every <code>saveEvery</code> commands, or the end
+ * of the script, instead of after each command, by switching the storage to
+ * <code>DurabilityMode.ON_EXIT</code> while the script runs. Each command
+ * is one edit of the list, which <code>undo</code> reverts on its own.
+ *
+ * @author marclamp
+ */
+public class BatchRunner {
+    /** Saves only at the end of the script. */
+    public static final int SAVE_AT_END = 0;
+    private static final int MAX_ERRORS_SHOWN = 10;
+
+    private final int saveEvery;
+    private final boolean isStoppedByError;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param saveEvery number of commands between saves, or <code>SAVE_AT_END</code>.
+     * @param isStoppedByError whether the script stops at the first command
+     *     which fails, rather than going on to the next.
+     */
+    public BatchRunner(int saveEvery, boolean isStoppedByError) {
+        if (saveEvery < 0) {
+            throw new IllegalArgumentException("Commands between saves must not be negative.");
+        }
+        this.saveEvery = saveEvery;
+        this.isStoppedByError = isStoppedByError;
+    }
+
+    /**
+     * Runs every command of a script, skipping blank lines, until the end of
+     * the script, a <code>bye</code>, or the first error if the runner stops
+     * at errors. A script cannot run another script.
+     *
+     * @param script lines of the script.
+     * @param tasks the list of tasks.
+     * @param ui object that the commands print their replies with.
+     * @param storage object that is used for storage.
+     * @return <code>Summary</code> of the commands run.
+     * @throws ChaterpillarException if the script cannot be read, or if
+     *     there are errors saving the changes.
+     */
+    public Summary run(BufferedReader script, TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        Summary summary = new Summary();
+        DurabilityMode mode = storage.getDurabilityMode();
+        storage.setDurabilityMode(DurabilityMode.ON_EXIT);
+        long start = System.nanoTime();
+        try {
+            int lineNumber = 0;
+            int sinceSave = 0;
+            String line;
+            while ((line = script.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                boolean isDone = runLine(line.strip(), lineNumber, tasks, ui, storage, summary);
+                if (saveEvery != SAVE_AT_END && ++sinceSave == saveEvery) {
+                    storage.sync();
+                    sinceSave = 0;
+                }
+                if (isDone) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in reading the script.");
+        } finally {
+            storage.setDurabilityMode(mode);
+            storage.sync();
+        }
+        summary.elapsedNanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    /**
+     * Runs one command of the script.
+     *
+     * @return <code>true</code> if the script should stop after this command.
+     */
+    private boolean runLine(String line, int lineNumber, TaskList tasks, Ui ui, Storage storage,
+                            Summary summary) {
+        summary.commandCount++;
+        try {
+            Command command = Parser.parse(line);
+            if (command instanceof RunCommand) {
+                throw new ChaterpillarException("Sorry! A script cannot run another script.");
+            }
+            // each command is undone on its own, as if it had been typed
+            command.executeAsEdit(tasks, ui, storage);
+            return command.hasExited();
+        } catch (ChaterpillarException | RuntimeException e) {
+            // a line typed wrongly may fail with any exception, which should not end the whole script
+            summary.addError(lineNumber, e);
+            summary.hasStopped = isStoppedByError;
+            return isStoppedByError;
+        }
+    }
+
+    /**
+     * Number of commands run by a script, how long they took, and the errors
+     * of those which failed.
+     */
+    public static class Summary {
+        private final ArrayList<String> errors = new ArrayList<>();
+        private int commandCount;
+        private int errorCount;
+        private long elapsedNanos;
+        private boolean hasStopped;
+
+        private void addError(int lineNumber, Exception e) {
+            errorCount++;
+            if (errors.size() < MAX_ERRORS_SHOWN) {
+                String message = e.getMessage() == null ? e.toString() : e.getMessage();
+                errors.add("line " + lineNumber + ": " + message.lines().findFirst().orElse(""));
+            }
+        }
+
+        public int getCommandCount() {
+            return commandCount;
+        }
+
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Gets the number of commands run each second, including those which failed.
+         *
+         * @return throughput of the script.
+         */
+        public double getCommandsPerSecond() {
+            return elapsedNanos == 0 ? 0 : commandCount * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder strBdr = new StringBuilder(String.format(
+                    "Ran %d command(s) in %.1f ms (%,.0f commands/second), with %d error(s).",
+                    commandCount, elapsedNanos / 1e6, getCommandsPerSecond(), errorCount));
+            for (String error : errors) {
+                strBdr.append("\n").append(error);
+            }
+            if (errorCount > errors.size()) {
+                strBdr.append("\n...and ").append(errorCount - errors.size()).append(" more.");
+            }
+            if (hasStopped) {
+                strBdr.append("\nStopped at the first error.");
+            }
+            return strBdr.toString();
+        }
+    }
+}
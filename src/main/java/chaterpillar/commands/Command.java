@@ -33,4 +33,42 @@ public abstract class Command {
     public boolean hasExited() {
         return false;
     }
+
+    /**
+     * Executes the command as one edit if it is one, so that everything it
+     * changes is undone together. Its changes are written to storage after
+     * the edit has ended, so that the list is not locked while they are.
+     *
+     * @param tasks the list of tasks.
+     * @param ui object that handles the UI of this application.
+     * @param storage object that is used for storage.
+     * @return reply from the ChatBot.
+     * @throws ChaterpillarException custom <code>Exception</code> for this application.
+     */
+    public String executeAsEdit(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        if (!isOneEdit()) {
+            return execute(tasks, ui, storage);
+        }
+        String reply;
+        tasks.beginEdit();
+        try {
+            reply = execute(tasks, ui, storage);
+        } finally {
+            tasks.endEdit();
+            storage.writeQueued();
+        }
+        return reply;
+    }
+
+    /**
+     * Returns whether every change made by the command is undone together.
+     * Commands which do not change the list only take its read lock instead,
+     * and those which run others, such as <code>RunCommand</code>, make an
+     * edit for each of them.
+     *
+     * @return <code>boolean</code> which is default true.
+     */
+    public boolean isOneEdit() {
+        return true;
+    }
 }
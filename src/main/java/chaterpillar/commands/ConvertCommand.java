@@ -0,0 +1,55 @@
+package chaterpillar.commands;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.storage.Storage;
+import chaterpillar.storage.StorageFormat;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * <code>Command</code> to convert the saved list of tasks to another
+ * <code>StorageFormat</code>.
+ *
+ * @author marclamp
+ */
+public class ConvertCommand extends Command {
+    private final StorageFormat format;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param format the format to convert the saved file to.
+     */
+    public ConvertCommand(StorageFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Rewrites the saved file in the specified format.
+     *
+     * @param tasks the list of tasks.
+     * @param ui object that handles the UI of this application.
+     * @param storage object that is used for storage.
+     * @return reply from the ChatBot.
+     * @throws ChaterpillarException if there are errors writing to the file.
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        StorageFormat oldFormat = storage.getFormat();
+        storage.convertTo(this.format, tasks);
+
+        String output = "Done! Your " + tasks.size() + " task(s) are now saved in the "
+                + this.format.name().toLowerCase() + " format"
+                + (oldFormat == this.format ? " (it already was)." : ".");
+        ui.echo(output);
+        return output;
+    }
+
+    /**
+     * Returns <code>false</code>, so that the snapshot is converted without locking the list.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
+}
@@ -4,6 +4,7 @@ import chaterpillar.exceptions.ChaterpillarException;
 import chaterpillar.storage.Storage;
 import chaterpillar.tasks.Task;
 import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TaskReference;
 import chaterpillar.ui.Ui;
 
 /**
@@ -13,7 +14,7 @@ import chaterpillar.ui.Ui;
  * @author marclamp
  */
 public class DeleteCommand extends Command {
-    private final int index;
+    private final TaskReference reference;
 
     /**
      * Constructor for this class.
@@ -21,7 +22,16 @@ public class DeleteCommand extends Command {
      * @param index the index of the item to be deleted.
      */
     public DeleteCommand(int index) {
-        this.index = index;
+        this(new TaskReference(index));
+    }
+
+    /**
+     * Overloaded constructor to refer to the task by position or by id.
+     *
+     * @param reference the item to be deleted.
+     */
+    public DeleteCommand(TaskReference reference) {
+        this.reference = reference;
     }
 
     /**
@@ -37,8 +47,9 @@ public class DeleteCommand extends Command {
     @Override
     public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
         try {
+            int index = reference.resolve(tasks);
             Task task = tasks.deleteTaskAtIndex(index);
-            storage.saveAllToFile(tasks);
+            storage.appendDelete(tasks, index);
 
             String output =
                     "I have deleted this task for you: \n"
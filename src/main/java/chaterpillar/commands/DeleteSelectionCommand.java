@@ -0,0 +1,49 @@
+package chaterpillar.commands;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TaskSelection;
+import chaterpillar.ui.Ui;
+
+/**
+ * <code>Command</code> to delete several tasks at once, such as
+ * <code>delete 3,7,9-12</code>, which is saved with a single write.
+ *
+ * @author marclamp
+ */
+public class DeleteSelectionCommand extends Command {
+    private final TaskSelection selection;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param selection the items to be deleted.
+     */
+    public DeleteSelectionCommand(TaskSelection selection) {
+        this.selection = selection;
+    }
+
+    /**
+     * Deletes the items selected, from the last to the first.
+     *
+     * @param tasks <code>TaskList</code> object for the list of tasks.
+     * @param ui <code>Ui</code> object that handles the UI of this application.
+     * @param storage <code>Storage</code> object that is used for storage.
+     * @return reply from the ChatBot.
+     * @throws ChaterpillarException if an item selected does not exist,
+     *     or if there is an error writing to file.
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        int[] selected = selection.resolve(tasks);
+        tasks.deleteTasksAtIndexes(selected);
+        storage.appendDeletes(tasks, selected);
+
+        String output =
+                "I have deleted " + selected.length + " task(s) for you.\n"
+                + "Now you have " + tasks.size() + " tasks in the list.";
+        ui.echo(output);
+        return output;
+    }
+}
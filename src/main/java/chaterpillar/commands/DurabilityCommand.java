@@ -0,0 +1,72 @@
+package chaterpillar.commands;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.storage.DurabilityMode;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * <code>Command</code> to change when changes to the list of tasks
+ * are written to disk.
+ *
+ * @author marclamp
+ */
+public class DurabilityCommand extends Command {
+    private final DurabilityMode mode;
+    private final long flushIntervalMillis;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param mode the new durability mode.
+     * @param flushIntervalMillis the new flush interval, or 0 to keep the current one.
+     */
+    public DurabilityCommand(DurabilityMode mode, long flushIntervalMillis) {
+        this.mode = mode;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Switches the storage to the specified durability mode.
+     *
+     * @param tasks the list of tasks.
+     * @param ui object that handles the UI of this application.
+     * @param storage object that is used for storage.
+     * @return reply from the ChatBot.
+     * @throws ChaterpillarException if there are errors writing queued changes.
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        if (flushIntervalMillis > 0) {
+            storage.setFlushIntervalMillis(flushIntervalMillis);
+        }
+        storage.setDurabilityMode(mode);
+
+        String output;
+        switch (mode) {
+        case IMMEDIATE:
+            output = "Okay! Every change will be saved straight away.";
+            break;
+        case BATCHED:
+            output = "Okay! Changes will be saved at most every "
+                    + storage.getFlushIntervalMillis() + " ms.";
+            break;
+        case ON_EXIT:
+            output = "Okay! Changes will only be saved on 'sync' or when you leave.";
+            break;
+        default:
+            throw new AssertionError(mode);
+        }
+        ui.echo(output);
+        return output;
+    }
+
+    /**
+     * Returns <code>false</code>, since only the way changes are saved is set.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
+}
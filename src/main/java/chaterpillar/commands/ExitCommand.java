@@ -1,5 +1,6 @@
 package chaterpillar.commands;
 
+import chaterpillar.exceptions.ChaterpillarException;
 import chaterpillar.storage.Storage;
 import chaterpillar.tasks.TaskList;
 import chaterpillar.ui.Ui;
@@ -12,14 +13,16 @@ import chaterpillar.ui.Ui;
 public class ExitCommand extends Command {
 
     /**
-     * Exits the program.
+     * Exits the program, after writing any changes that are still queued.
      *
      * @param tasks the list of tasks.
      * @param ui object that handles the UI of this application.
      * @param storage object that is used for storage.
      * @return exit message from the ChatBot
+     * @throws ChaterpillarException if there are errors writing queued changes.
      */
-    public String execute(TaskList tasks, Ui ui, Storage storage) {
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        storage.sync();
         String output = "Bye. Hope to see you again soon!";
         ui.echo(output);
         return output;
@@ -36,4 +39,12 @@ public class ExitCommand extends Command {
     public boolean hasExited() {
         return true;
     }
+
+    /**
+     * Returns <code>false</code>, as saying goodbye leaves the list as it is.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
 }
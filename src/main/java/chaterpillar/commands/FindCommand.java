@@ -1,18 +1,39 @@
 package chaterpillar.commands;
 
+import java.util.ArrayList;
+
 import chaterpillar.exceptions.ChaterpillarException;
 import chaterpillar.storage.Storage;
-import chaterpillar.tasks.Task;
+import chaterpillar.tasks.FuzzyMatch;
 import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TaskListView;
 import chaterpillar.ui.Ui;
 
 /**
- * <code>Command</code> to find all tasks containing the search word.
+ * <code>Command</code> to find all tasks containing the search word,
+ * either anywhere in their names, as whole words in any case, or as
+ * the closest words allowing for typos.
  *
  * @author marclamp
  */
 public class FindCommand extends Command {
+    /** Largest number of tasks listed by a fuzzy search. */
+    private static final int FUZZY_LIMIT = 10;
+
+    /**
+     * How the keyword is matched against the names of tasks.
+     */
+    public enum Mode {
+        /** The keyword is part of the name, in the same case. */
+        SUBSTRING,
+        /** Every word of the keyword is a whole word in the name, in any case. */
+        WORDS,
+        /** Every word of the keyword is a word in the name, give or take a few typos. */
+        FUZZY
+    }
+
     private final String keyword;
+    private final Mode mode;
 
     /**
      * Constructor for this class
@@ -20,7 +41,18 @@ public class FindCommand extends Command {
      * @param keyword to be searched and matched
      */
     public FindCommand(String keyword) {
+        this(keyword, Mode.SUBSTRING);
+    }
+
+    /**
+     * Overloaded constructor to choose how the keyword is matched.
+     *
+     * @param keyword to be searched and matched
+     * @param mode how the keyword is matched
+     */
+    public FindCommand(String keyword, Mode mode) {
         this.keyword = keyword;
+        this.mode = mode;
     }
 
     /**
@@ -37,21 +69,54 @@ public class FindCommand extends Command {
         if (this.keyword.trim().isEmpty()) {
             throw new ChaterpillarException("Word/phrase to be search cannot be empty!");
         }
-
-        TaskList newList = new TaskList();
-        for (Task task : tasks.getTasks()) {
-            if (task.containsInName(this.keyword)) {
-                newList.addTask(task);
-            }
+        if (this.mode == Mode.FUZZY) {
+            return executeFuzzy(tasks, ui);
         }
 
+        TaskListView newList = this.mode == Mode.WORDS
+                ? tasks.getTasksWithWords(this.keyword)
+                : tasks.getTasksContaining(this.keyword);
+
         if (newList.size() == 0) {
             String output = "There are no items that match your search.";
             ui.echo(output);
             return output;
         } else {
             String output = "Here are the items that match the keyword (" + this.keyword + "): \n";
-            return output + new ListCommand(newList).execute(newList, ui, storage);
+            return output + new ListCommand(newList).execute(tasks, ui, storage);
         }
     }
+
+    private String executeFuzzy(TaskList tasks, Ui ui) {
+        ArrayList<FuzzyMatch> matches = tasks.getClosestMatches(this.keyword, FUZZY_LIMIT);
+        if (matches.isEmpty()) {
+            String output = "There are no items close to your search.";
+            ui.echo(output);
+            return output;
+        }
+
+        StringBuilder output = new StringBuilder("Here are the items closest to the keyword (")
+                .append(this.keyword)
+                .append("): \n");
+        for (FuzzyMatch match : matches) {
+            output.append(tasks.getIndexOfId(match.getTask().getId()) + 1)
+                    .append(". ")
+                    .append(match.getTask())
+                    .append(" (#")
+                    .append(match.getTask().getId())
+                    .append(") (typos: ")
+                    .append(match.getDistance())
+                    .append(")\n");
+        }
+        ui.echo(output.toString());
+        return output.toString();
+    }
+
+    /**
+     * Returns <code>false</code>, as a search leaves the list unchanged.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
 }
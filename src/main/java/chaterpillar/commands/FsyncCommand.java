@@ -0,0 +1,53 @@
+package chaterpillar.commands;
+
+import chaterpillar.storage.FsyncPolicy;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * <code>Command</code> to change when saved data is forced onto the disk.
+ *
+ * @author marclamp
+ */
+public class FsyncCommand extends Command {
+    private final FsyncPolicy policy;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param policy the new fsync policy.
+     */
+    public FsyncCommand(FsyncPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Switches the storage to the specified fsync policy.
+     *
+     * @param tasks the list of tasks.
+     * @param ui object that handles the UI of this application.
+     * @param storage object that is used for storage.
+     * @return reply from the ChatBot, including the timings of the last save.
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) {
+        storage.setFsyncPolicy(policy);
+
+        String output = "Okay! Saved data will now be forced to disk with the '"
+                + policy.name().toLowerCase().replace('_', '-') + "' policy.";
+        if (storage.getLastSaveTimings() != null) {
+            output += "\n" + storage.getLastSaveTimings();
+        }
+        ui.echo(output);
+        return output;
+    }
+
+    /**
+     * Returns <code>false</code>, as the fsync policy belongs to the storage, not the list.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
+}
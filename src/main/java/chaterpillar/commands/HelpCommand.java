@@ -13,14 +13,28 @@ public class HelpCommand extends Command {
 
     private static final String HELP_MESSAGE = "Hi! Here are the list of commands I recognise: \n\n"
                                                + "'list' - lists the tasks registered in the list\n"
+                                               + "'more' - shows the next page of the tasks listed\n"
                                                + "'today' - lists the tasks for today\n"
+                                               + "'due' - lists the deadlines due before a date or between two dates\n"
                                                + "'find' - finds the tasks containing the keyword specified\n"
+                                               + "'search' - finds the tasks containing all the words specified, in any case\n"
+                                               + "'find~' - finds the tasks closest to the words specified, allowing typos\n"
                                                + "'todo' - adds an item that has no due date\n"
                                                + "'deadline' - adds an item with a due date\n"
                                                + "'event' - adds an item that has a duration\n"
                                                + "'mark' - marks the task as completed\n"
                                                + "'unmark' - marks the task as not completed\n"
                                                + "'update' - updates the task details\n"
+                                               + "'delete' - deletes the task\n"
+                                               + "'undo' - undoes the last change to the list\n"
+                                               + "'redo' - redoes the last change undone\n"
+                                               + "(tasks can be given by their position, e.g. 2, or their id, e.g. #2)\n"
+                                               + "(mark, unmark and delete also take lists and ranges, e.g. 3,7,9-12, or all)\n"
+                                               + "'run' - runs the commands in a file, saving once at the end\n"
+                                               + "'convert' - saves the list in the 'text' or 'binary' format\n"
+                                               + "'sync' - saves any changes that are still waiting\n"
+                                               + "'durability' - sets when changes are saved: immediate, batched or on-exit\n"
+                                               + "'fsync' - sets when saves are forced to disk: never, per-save or batched\n"
                                                + "'help' - opens the list of commands available\n"
                                                + "'bye' - exits the chatbot";
 
@@ -36,4 +50,12 @@ public class HelpCommand extends Command {
         ui.echo(HELP_MESSAGE);
         return HELP_MESSAGE;
     }
+
+    /**
+     * Returns <code>false</code>, as the help message does not touch the list.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
 }
@@ -1,26 +1,97 @@
 package chaterpillar.commands;
 
+import java.io.IOException;
+
+import chaterpillar.exceptions.ChaterpillarException;
 import chaterpillar.storage.Storage;
 import chaterpillar.tasks.TaskList;
 import chaterpillar.ui.Ui;
 
 /**
  * <code>Command</code> specifically to print all the tasks
- * present in the list of tasks currently.
+ * present in the list of tasks currently, one page at a time, or all at once.
  *
  * @author marclamp
  */
 public class ListAllCommand extends Command {
+    private final int page;
+    private final int pageSize;
+    private final boolean isWholeList;
+
+    /**
+     * Basic constructor, printing the first page of tasks.
+     */
+    public ListAllCommand() {
+        this(1, ListCommand.DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Overloaded constructor to print every task at once, or only the first page.
+     *
+     * @param isWholeList whether every task is printed, rather than one page.
+     */
+    public ListAllCommand(boolean isWholeList) {
+        this(1, ListCommand.DEFAULT_PAGE_SIZE, isWholeList);
+    }
+
+    /**
+     * Overloaded constructor to print the specified page of tasks.
+     *
+     * @param page number of the page, starting from 1.
+     * @param pageSize number of tasks in each page.
+     */
+    public ListAllCommand(int page, int pageSize) {
+        this(page, pageSize, false);
+    }
+
+    private ListAllCommand(int page, int pageSize, boolean isWholeList) {
+        this.page = page;
+        this.pageSize = pageSize;
+        this.isWholeList = isWholeList;
+    }
 
     /**
-     * Prints all the tasks in the list currently.
+     * Prints all the tasks in the list currently, on the specified page, or
+     * every one of them, written one task at a time.
      *
      * @param tasks the list of tasks.
      * @param ui object that handles the UI of this application.
      * @param storage object that is used for storage.
      * @return reply from the ChatBot.
+     * @throws ChaterpillarException if there are not enough tasks for that page.
+     */
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        if (isWholeList) {
+            return executeWholeList(tasks, ui);
+        }
+        long from = (long) (page - 1) * pageSize;
+        if (page > 1 && from >= tasks.size()) {
+            long pageCount = Math.max(1, (tasks.size() + (long) pageSize - 1) / pageSize);
+            throw new ChaterpillarException("Sorry! There is no page " + page + ".\n"
+                                            + "There are only " + pageCount + " page(s) of " + pageSize + " tasks.");
+        }
+        return new ListCommand(tasks.viewAll(), (int) from, pageSize).execute(tasks, ui, storage);
+    }
+
+    private static String executeWholeList(TaskList tasks, Ui ui) {
+        StringBuilder output = new StringBuilder();
+        try {
+            new ListCommand(tasks).writeTo(output);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder does not throw IOException", e);
+        }
+        ui.setNextPage(null);
+
+        String reply = output.toString();
+        ui.echo(reply);
+        return reply;
+    }
+
+    /**
+     * Returns <code>false</code>, as listing every task only reads the list.
      */
-    public String execute(TaskList tasks, Ui ui, Storage storage) {
-        return new ListCommand(tasks).execute(tasks, ui, storage);
+    @Override
+    public boolean isOneEdit() {
+        return false;
     }
 }
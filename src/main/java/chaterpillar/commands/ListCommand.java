@@ -1,19 +1,37 @@
 package chaterpillar.commands;
 
+import java.io.IOException;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
 import chaterpillar.storage.Storage;
 import chaterpillar.tasks.Task;
 import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TaskListView;
 import chaterpillar.ui.Ui;
 
 /**
  * <code>Command</code> to list out the list of tasks given
  * as a parameter in its construction, used in <code>ListAllCommand</code>
  * <code>TasksByDateCommand</code>, and <code>TasksByTodayCommand</code>.
+ * Each task is shown with its position in the full list and its id,
+ * either of which can be used to refer to it in other commands.
+ *
+ * <p>Only one page of tasks is formatted at a time. If there are more, the
+ * next page is kept by the <code>Ui</code> for the <code>more</code> command.
+ * The whole list can instead be written to an <code>Appendable</code>
+ * with <code>writeTo</code>, one task at a time.
  *
  * @author marclamp
  */
 public class ListCommand extends Command {
-    private final TaskList tasks;
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final String HEADER = "Here are the tasks in your list: \n";
+
+    private final TaskListView tasks;
+    private final int from;
+    private final int pageSize;
 
     /**
      * Constructor for this class.
@@ -21,11 +39,36 @@ public class ListCommand extends Command {
      * @param tasks list of tasks to be printed.
      */
     public ListCommand(TaskList tasks) {
+        this(tasks.viewAll());
+    }
+
+    /**
+     * Overloaded constructor to print some of the tasks in a list, such as
+     * the results of a query, without copying them.
+     *
+     * @param tasks view of the tasks to be printed.
+     */
+    public ListCommand(TaskListView tasks) {
+        this(tasks, 0, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Overloaded constructor to print one page of the tasks in a list.
+     *
+     * @param tasks view of the tasks to be printed.
+     * @param from index in the view of the first task to be printed.
+     * @param pageSize most number of tasks to be printed.
+     */
+    public ListCommand(TaskListView tasks, int from, int pageSize) {
+        assert from >= 0 && pageSize > 0 : "Page should start at 0 or after and not be empty";
         this.tasks = tasks;
+        this.from = from;
+        this.pageSize = pageSize;
     }
 
     /**
-     * Prints all the tasks in a specified list of tasks.
+     * Prints a page of the tasks in a specified list of tasks, keeping the
+     * next page, if any, for the <code>more</code> command.
      *
      * @param tasks the list of tasks.
      * @param ui object that handles the UI of this application.
@@ -33,17 +76,62 @@ public class ListCommand extends Command {
      * @return reply from the ChatBot.
      */
     public String execute(TaskList tasks, Ui ui, Storage storage) {
-        StringBuilder output = new StringBuilder("Here are the tasks in your list: \n");
+        if (from > 0 && !this.tasks.isCurrent()) {
+            throw new ConcurrentModificationException("The list of tasks changed after its first page was shown.");
+        }
+        int size = this.tasks.size();
+        int to = (int) Math.min(size, (long) from + pageSize);
+        StringBuilder output = new StringBuilder(HEADER);
+        try {
+            appendTasks(output, to);
+        } catch (IOException e) {
+            throw new AssertionError("StringBuilder does not throw IOException", e);
+        }
+
+        if (to < size) {
+            output.append("Showing tasks ").append(from + 1).append(" to ").append(to)
+                    .append(" of ").append(size).append(". Type 'more' to see the next ")
+                    .append(Math.min(pageSize, size - to)).append(".\n");
+            ui.setNextPage(new ListCommand(this.tasks, to, pageSize));
+        } else {
+            ui.setNextPage(null);
+        }
+
+        String reply = output.toString();
+        ui.echo(reply);
+        return reply;
+    }
+
+    /**
+     * Writes every task from the first of this page to the end of the list,
+     * one task at a time, instead of building them into one <code>String</code>.
+     *
+     * @param out where the tasks are written to, such as a <code>Writer</code>.
+     * @throws IOException if the tasks cannot be written.
+     */
+    public void writeTo(Appendable out) throws IOException {
+        out.append(HEADER);
+        appendTasks(out, this.tasks.size());
+    }
 
-        int i = 1;
-        for (Task eachTask : this.tasks.getTasks()) {
-            output.append(i++)
+    private void appendTasks(Appendable out, int to) throws IOException {
+        Iterator<Task> iterator = this.tasks.iterator(from);
+        for (int i = from; i < to; i++) {
+            Task eachTask = iterator.next();
+            out.append(String.valueOf(this.tasks.getIndex(i) + 1))
                     .append(". ")
-                    .append(eachTask)
-                    .append("\n");
+                    .append(eachTask.toString())
+                    .append(" (#")
+                    .append(String.valueOf(eachTask.getId()))
+                    .append(")\n");
         }
+    }
 
-        ui.echo(output.toString());
-        return output.toString();
+    /**
+     * Returns <code>false</code>, so that showing a page only takes the read lock of the list.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
     }
 }
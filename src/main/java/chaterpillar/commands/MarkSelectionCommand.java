@@ -0,0 +1,55 @@
+package chaterpillar.commands;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TaskSelection;
+import chaterpillar.ui.Ui;
+
+/**
+ * <code>Command</code> to mark or unmark several tasks at once, such as
+ * <code>mark 1-500</code>, which is saved with a single write.
+ *
+ * @author marclamp
+ */
+public class MarkSelectionCommand extends Command {
+    private final TaskSelection selection;
+    private final boolean isMarked;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param selection the items to be marked or unmarked.
+     * @param isMarked whether the items should be marked.
+     */
+    public MarkSelectionCommand(TaskSelection selection, boolean isMarked) {
+        this.selection = selection;
+        this.isMarked = isMarked;
+    }
+
+    /**
+     * Marks or unmarks the items selected, skipping those which already are.
+     *
+     * @param tasks the list of tasks.
+     * @param ui object that handles the UI of this application.
+     * @param storage object that is used for storage.
+     * @return reply from the ChatBot.
+     * @throws ChaterpillarException if an item selected does not exist,
+     *     or if there is an error writing to file.
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        int[] selected = selection.resolve(tasks);
+        int[] changed = tasks.setMarked(selected, isMarked);
+        storage.appendMarks(tasks, changed, isMarked);
+
+        String state = isMarked ? "done" : "not done";
+        String output = (isMarked ? "Nice! " : "Ok, ") + "I've marked " + changed.length
+                        + " task(s) as " + state + ".";
+        if (changed.length < selected.length) {
+            output += "\n" + (selected.length - changed.length) + " of them were already " + state + ".";
+        }
+        ui.echo(output);
+        return output;
+    }
+}
@@ -0,0 +1,49 @@
+package chaterpillar.commands;
+
+import java.util.ConcurrentModificationException;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * <code>Command</code> to print the next page of the last list
+ * of tasks printed.
+ *
+ * @author marclamp
+ */
+public class MoreCommand extends Command {
+
+    /**
+     * Prints the next page of the last list of tasks printed.
+     *
+     * @param tasks the list of tasks.
+     * @param ui object that handles the UI of this application.
+     * @param storage object that is used for storage.
+     * @return reply from the ChatBot.
+     * @throws ChaterpillarException if there is no next page, or if tasks have
+     *     been added or deleted since the list was printed.
+     */
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        Command nextPage = ui.getNextPage();
+        if (nextPage == null) {
+            throw new ChaterpillarException("There is nothing more to show!");
+        }
+        try {
+            return nextPage.execute(tasks, ui, storage);
+        } catch (ConcurrentModificationException e) {
+            ui.setNextPage(null);
+            throw new ChaterpillarException("Sorry! The list has changed since it was shown.\n"
+                                            + "Please list the tasks again.");
+        }
+    }
+
+    /**
+     * Returns <code>false</code>, since the next page is read from the list without changing it.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
+}
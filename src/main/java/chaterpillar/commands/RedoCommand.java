@@ -0,0 +1,38 @@
+package chaterpillar.commands;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * <code>Command</code> to redo the last command which changed the list.
+ *
+ * @author marclamp
+ */
+public class RedoCommand extends Command {
+
+    /**
+     * Redoes the last command which changed the list, and saves the list.
+     *
+     * @param tasks the list of tasks.
+     * @param ui object that handles the UI of this application.
+     * @param storage object that is used for storage.
+     * @return reply from the ChatBot.
+     * @throws ChaterpillarException if there is nothing to redo, or
+     *     if there is an error writing to file.
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        if (!tasks.redo()) {
+            throw new ChaterpillarException("There is nothing to redo!");
+        }
+        // the journal only records changes going forward, so the whole list is saved
+        storage.saveAllToFile(tasks);
+
+        String output = "Done! I've redone the last change.\n"
+                        + "You now have " + tasks.size() + " tasks in the list.";
+        ui.echo(output);
+        return output;
+    }
+}
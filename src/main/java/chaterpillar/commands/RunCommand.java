@@ -0,0 +1,67 @@
+package chaterpillar.commands;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * <code>Command</code> to run a script of commands from a file, saving the
+ * changes once at the end or every few commands, rather than after each.
+ *
+ * @author marclamp
+ */
+public class RunCommand extends Command {
+    private final Path path;
+    private final BatchRunner runner;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param path file with one command on each line.
+     * @param saveEvery number of commands between saves, or <code>BatchRunner.SAVE_AT_END</code>.
+     * @param isStoppedByError whether the script stops at the first command which fails.
+     */
+    public RunCommand(Path path, int saveEvery, boolean isStoppedByError) {
+        this.path = path;
+        this.runner = new BatchRunner(saveEvery, isStoppedByError);
+    }
+
+    /**
+     * Returns <code>false</code>, as each command of the script is an edit of its own.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
+
+    /**
+     * Runs the commands of the script without printing their replies, and
+     * reports how many were run and how fast.
+     *
+     * @param tasks the list of tasks.
+     * @param ui object that handles the UI of this application.
+     * @param storage object that is used for storage.
+     * @return reply from the ChatBot.
+     * @throws ChaterpillarException if the file cannot be read, or if there
+     *     are errors saving the changes.
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        BatchRunner.Summary summary;
+        try (BufferedReader script = Files.newBufferedReader(path)) {
+            summary = runner.run(script, tasks, new Ui(true), storage);
+        } catch (IOException e) {
+            throw new ChaterpillarException("Sorry! I could not open the script " + path + ".");
+        }
+
+        String output = summary.toString();
+        ui.echo(output);
+        return output;
+    }
+}
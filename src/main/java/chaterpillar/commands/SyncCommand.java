@@ -0,0 +1,45 @@
+package chaterpillar.commands;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * <code>Command</code> to write every change that is still waiting
+ * to be saved.
+ *
+ * @author marclamp
+ */
+public class SyncCommand extends Command {
+
+    /**
+     * Writes all queued changes to the journal.
+     *
+     * @param tasks the list of tasks.
+     * @param ui object that handles the UI of this application.
+     * @param storage object that is used for storage.
+     * @return reply from the ChatBot.
+     * @throws ChaterpillarException if there are errors writing to the file.
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
+        int pendingCount = storage.getPendingCount();
+        storage.sync();
+
+        String output = "All saved! " + pendingCount + " change(s) were waiting to be written.";
+        if (storage.getLastSaveTimings() != null) {
+            output += "\n" + storage.getLastSaveTimings();
+        }
+        ui.echo(output);
+        return output;
+    }
+
+    /**
+     * Returns <code>false</code>, so that the list is not locked while the journal is written.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
+}
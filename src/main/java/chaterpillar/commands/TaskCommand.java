@@ -34,7 +34,7 @@ public class TaskCommand extends Command {
      */
     public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
         tasks.addTask(this.task);
-        storage.saveAllToFile(tasks);
+        storage.appendAdd(tasks, this.task);
 
         String output =
                 "Got it. I've added this task:\n"
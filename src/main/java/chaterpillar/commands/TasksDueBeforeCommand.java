@@ -0,0 +1,54 @@
+package chaterpillar.commands;
+
+import chaterpillar.datetime.DateTime;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TaskListView;
+import chaterpillar.ui.Ui;
+
+/**
+ * <code>Command</code> to list all deadlines due before a specified date.
+ *
+ * @author marclamp
+ */
+public class TasksDueBeforeCommand extends Command {
+    private final DateTime date;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param date displays the deadlines due before this date.
+     */
+    public TasksDueBeforeCommand(DateTime date) {
+        this.date = date;
+    }
+
+    /**
+     * Lists the deadlines due before the specified date, earliest first.
+     *
+     * @param tasks the list of tasks.
+     * @param ui object that handles the UI of this application.
+     * @param storage object that is used for storage.
+     * @return reply from the ChatBot.
+     */
+    public String execute(TaskList tasks, Ui ui, Storage storage) {
+        TaskListView tasksNew = tasks.getDeadlinesBefore(this.date);
+        String output = String.format("Due before %s,\n", this.date);
+
+        if (tasksNew.size() == 0) {
+            output += "Congrats! You have nothing due before then. :)";
+            ui.echo(output);
+            return output;
+        } else {
+            return output + new ListCommand(tasksNew).execute(tasks, ui, storage);
+        }
+    }
+
+    /**
+     * Returns <code>false</code>, since the deadlines are only looked up.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
+}
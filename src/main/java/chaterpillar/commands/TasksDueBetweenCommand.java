@@ -0,0 +1,57 @@
+package chaterpillar.commands;
+
+import chaterpillar.datetime.DateTime;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TaskListView;
+import chaterpillar.ui.Ui;
+
+/**
+ * <code>Command</code> to list all deadlines due within a range of dates.
+ *
+ * @author marclamp
+ */
+public class TasksDueBetweenCommand extends Command {
+    private final DateTime from;
+    private final DateTime to;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param from first date of the range (inclusive).
+     * @param to last date of the range (inclusive).
+     */
+    public TasksDueBetweenCommand(DateTime from, DateTime to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Lists the deadlines due within the specified dates, earliest first.
+     *
+     * @param tasks the list of tasks.
+     * @param ui object that handles the UI of this application.
+     * @param storage object that is used for storage.
+     * @return reply from the ChatBot.
+     */
+    public String execute(TaskList tasks, Ui ui, Storage storage) {
+        TaskListView tasksNew = tasks.getDeadlinesBetween(this.from, this.to);
+        String output = String.format("Due from %s to %s,\n", this.from, this.to);
+
+        if (tasksNew.size() == 0) {
+            output += "Congrats! You have nothing due then. :)";
+            ui.echo(output);
+            return output;
+        } else {
+            return output + new ListCommand(tasksNew).execute(tasks, ui, storage);
+        }
+    }
+
+    /**
+     * Returns <code>false</code>, as finding deadlines in a range changes nothing.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
+}
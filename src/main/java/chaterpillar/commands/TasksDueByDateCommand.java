@@ -4,6 +4,7 @@ import chaterpillar.datetime.DateTime;
 import chaterpillar.exceptions.ChaterpillarException;
 import chaterpillar.storage.Storage;
 import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TaskListView;
 import chaterpillar.ui.Ui;
 
 /**
@@ -43,7 +44,7 @@ public class TasksDueByDateCommand extends Command {
      * @return reply from the ChatBot.
      */
     public String execute(TaskList tasks, Ui ui, Storage storage) {
-        TaskList tasksNew = tasks.getTasksOnDate(this.date);
+        TaskListView tasksNew = tasks.getTasksOnDate(this.date);
         String output = String.format("For %s,\n", this.date);
 
         if (tasksNew.size() == 0) {
@@ -54,4 +55,12 @@ public class TasksDueByDateCommand extends Command {
             return output + new ListCommand(tasksNew).execute(tasks, ui, storage);
         }
     }
+
+    /**
+     * Returns <code>false</code>, so that the tasks on a date are found under the read lock.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
 }
@@ -4,6 +4,7 @@ import chaterpillar.exceptions.ChaterpillarException;
 import chaterpillar.storage.Storage;
 import chaterpillar.tasks.Task;
 import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TaskReference;
 import chaterpillar.ui.Ui;
 
 /**
@@ -12,7 +13,7 @@ import chaterpillar.ui.Ui;
  * @author marclamp
  */
 public class UnmarkCommand extends Command {
-    private final int index;
+    private final TaskReference reference;
 
     /**
      * Constructor for this class
@@ -20,7 +21,16 @@ public class UnmarkCommand extends Command {
      * @param index the index of the item to be unmarked.
      */
     public UnmarkCommand(int index) {
-        this.index = index;
+        this(new TaskReference(index - 1));
+    }
+
+    /**
+     * Overloaded constructor to refer to the task by position or by id.
+     *
+     * @param reference the item to be unmarked.
+     */
+    public UnmarkCommand(TaskReference reference) {
+        this.reference = reference;
     }
 
     /**
@@ -33,14 +43,14 @@ public class UnmarkCommand extends Command {
      * @throws ChaterpillarException if there is an error writing to file.
      */
     public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
-        if (index > tasks.size()) {
+        int index = reference.resolve(tasks);
+        if (index >= tasks.size()) {
             throw new ChaterpillarException(
                     "Sorry! That item does not exist in the list.\n"
                     + "You currently have " + tasks.size() + " tasks in the list.");
         }
-        Task currTask = tasks.get(index - 1);
-        currTask.unmark();
-        storage.saveAllToFile(tasks);
+        Task currTask = tasks.setMarked(index, false);
+        storage.appendUnmark(tasks, index);
 
         String output =
                 "Ok, I've marked this task as not done yet:\n" + currTask;
@@ -25,4 +25,12 @@ public class UnrecognisedCommand extends Command {
         ui.echo(UNRECOGNISED_MESSAGE);
         return UNRECOGNISED_MESSAGE;
     }
+
+    /**
+     * Returns <code>false</code>, since an unknown command changes nothing.
+     */
+    @Override
+    public boolean isOneEdit() {
+        return false;
+    }
 }
@@ -4,6 +4,7 @@ import chaterpillar.exceptions.ChaterpillarException;
 import chaterpillar.storage.Storage;
 import chaterpillar.tasks.Task;
 import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TaskReference;
 import chaterpillar.ui.Ui;
 
 /**
@@ -12,7 +13,7 @@ import chaterpillar.ui.Ui;
  * @author marclamp
  */
 public class UpdateCommand extends Command {
-    private final int index;
+    private final TaskReference reference;
     private final String updatedName;
     private final String updatedDate;
     private final String updatedStartDate;
@@ -29,33 +30,48 @@ public class UpdateCommand extends Command {
      */
     public UpdateCommand(int index, String updatedName, String updatedDate,
                          String updatedStartDate, String updatedEndDate) {
-        this.index = index;
+        this(new TaskReference(index), updatedName, updatedDate, updatedStartDate, updatedEndDate);
+    }
+
+    /**
+     * Overloaded constructor to refer to the task by position or by id.
+     *
+     * @param reference the <code>Task</code> in the list to be updated
+     * @param updatedName the updated name of the task
+     * @param updatedDate the updated date of the task
+     * @param updatedStartDate the updated start date of the task
+     * @param updatedEndDate the updated end date of the task
+     */
+    public UpdateCommand(TaskReference reference, String updatedName, String updatedDate,
+                         String updatedStartDate, String updatedEndDate) {
+        this.reference = reference;
         this.updatedName = updatedName;
         this.updatedDate = updatedDate;
         this.updatedStartDate = updatedStartDate;
         this.updatedEndDate = updatedEndDate;
-        assert index > 0;
     }
 
     /**
-     * Updates the details of the <code>Task</code> accordingly.
+     * Updates the details of the <code>Task</code> accordingly, all at once,
+     * so that the task is left as it was if any of them cannot be updated.
      *
      * @param tasks the list of tasks.
      * @param ui object that handles the UI of this application.
      * @param storage object that is used for storage.
      * @return reply from the ChatBot.
-     * @throws ChaterpillarException if there are any mismatch in the detail.
-     *     to be updated and the type of <code>Task</code>.
+     * @throws ChaterpillarException if the task does not exist, or if there are
+     *     any mismatch in the detail to be updated and the type of <code>Task</code>.
      */
     @Override
     public String execute(TaskList tasks, Ui ui, Storage storage) throws ChaterpillarException {
-        Task task = tasks.get(index);
-
-        task.updateName(updatedName);
-        task.updateDate(updatedDate);
-        task.updateStartDate(updatedStartDate);
-        task.updateEndDate(updatedEndDate);
-        storage.saveAllToFile(tasks);
+        int index = reference.resolve(tasks);
+        if (index >= tasks.size()) {
+            throw new ChaterpillarException(
+                    "Sorry! That item does not exist in the list.\n"
+                    + "You currently have " + tasks.size() + " tasks in the list.");
+        }
+        Task task = tasks.updateTask(index, updatedName, updatedDate, updatedStartDate, updatedEndDate);
+        storage.appendUpdate(tasks, index, task);
 
         String output =
                 "Okay! I have updated the following task: \n"
@@ -4,12 +4,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.Year;
-import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.format.DateTimeParseException;
-import java.time.temporal.ChronoField;
-import java.time.temporal.TemporalAccessor;
 
 import chaterpillar.exceptions.ChaterpillarException;
 
@@ -20,8 +15,14 @@ import chaterpillar.exceptions.ChaterpillarException;
  */
 
 public class DateTime {
-    private final LocalDateTime dateTime;
-    private boolean hasOnlyDate;
+    private static final long MINUTES_PER_DAY = 24 * 60;
+    private static final DateTimeFormatter CANONICAL_DATE_FORMAT = DateTimeFormatter.ofPattern("d/MMM/yyyy");
+    private static final DateTimeFormatter CANONICAL_DATE_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("d/MMM/yyyy hh:mm a");
+
+    private final long epochMinute;
+    private final long epochDay;
+    private final boolean hasOnlyDate;
     private boolean hasOnlyTime;
 
     /**
@@ -32,9 +33,11 @@ public class DateTime {
      *     invalid/unaccepted format.
      */
     public DateTime(String date) throws ChaterpillarException {
-        this.hasOnlyDate = false;
+        long scanned = parseDateTime(date);
+        this.epochMinute = DateTimeScanner.unpackEpochMinute(scanned);
+        this.epochDay = Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+        this.hasOnlyDate = DateTimeScanner.unpackHasOnlyDate(scanned);
         this.hasOnlyTime = false;
-        this.dateTime = parseDateTime(date);
     }
 
     /**
@@ -44,148 +47,45 @@ public class DateTime {
      * @param date date and time in <code>LocalDateTime</code> object
      */
     public DateTime(LocalDate date) {
+        this.epochDay = date.toEpochDay();
+        this.epochMinute = epochDay * MINUTES_PER_DAY;
         this.hasOnlyDate = true;
         this.hasOnlyTime = false;
-        this.dateTime = date.atTime(0, 0);
     }
 
     /**
-     * Parses the string of date and/or time to a
-     * <code>LocalDateTime</code> object.
+     * Overloaded Constructor to rebuild a <code>DateTime</code> from
+     * its compact form, as given by <code>toEpochMinute</code>.
      *
-     * @param str <code>String</code> of date and/or time
-     * @return <code>LocalDateTime</code> object
-     * @throws ChaterpillarException if the string provided is in the
-     *     invalid/unaccepted format.
+     * @param epochMinute minutes since 1/Jan/1970 00:00, in local time
+     * @param hasOnlyDate whether the time component should be hidden
      */
-    public LocalDateTime parseDateTime(String str) throws ChaterpillarException {
-        /* Solution adapted from:
-            https://www.baeldung.com/java-datetimeformatter
-            Specifically, how to use DateTimeFormatterBuilder and appending patterns.
-         */
-        DateTimeFormatterBuilder dateTimeFormatterBuilder =
-                new DateTimeFormatterBuilder()
-                        .appendPattern("[d/M/uuuu HHmm]")
-                        .appendPattern("[d-M-uuuu HHmm]")
-                        .appendPattern("[d M uuuu HHmm]")
-                        .appendPattern("[d/MMM/uuuu HHmm]")
-                        .appendPattern("[d-MMM-uuuu HHmm]")
-                        .appendPattern("[d MMM uuuu HHmm]")
-                        .appendPattern("[d/MMMM/uuuu HHmm]")
-                        .appendPattern("[d-MMMM-uuuu HHmm]")
-                        .appendPattern("[d MMMM uuuu HHmm]")
-                        .appendPattern("[d/M HHmm]")
-                        .appendPattern("[d-M HHmm]")
-                        .appendPattern("[d M HHmm]")
-                        .appendPattern("[d/MMM HHmm]")
-                        .appendPattern("[d-MMM HHmm]")
-                        .appendPattern("[d MMM HHmm]")
-                        .appendPattern("[d/MMMM HHmm]")
-                        .appendPattern("[d-MMMM HHmm]")
-                        .appendPattern("[d MMMM HHmm]")
-
-                        .appendPattern("[d/M/uuuu h:mm a]")
-                        .appendPattern("[d-M-uuuu h:mm a]")
-                        .appendPattern("[d M uuuu h:mm a]")
-                        .appendPattern("[d/MMM/uuuu h:mm a]")
-                        .appendPattern("[d-MMM-uuuu h:mm a]")
-                        .appendPattern("[d MMM uuuu h:mm a]")
-                        .appendPattern("[d/MMMM/uuuu h:mm a]")
-                        .appendPattern("[d-MMMM-uuuu h:mm a]")
-                        .appendPattern("[d MMMM uuuu h:mm a]")
-                        .appendPattern("[d/M h:mm a]")
-                        .appendPattern("[d-M h:mm a]")
-                        .appendPattern("[d M h:mm a]")
-                        .appendPattern("[d/MMM h:mm a]")
-                        .appendPattern("[d-MMM h:mm a]")
-                        .appendPattern("[d MMM h:mm a]")
-                        .appendPattern("[d/MMMM h:mm a]")
-                        .appendPattern("[d-MMMM h:mm a]")
-                        .appendPattern("[d MMMM h:mm a]")
-
-                        .appendPattern("[d/M/uuuu h a]")
-                        .appendPattern("[d-M-uuuu h a]")
-                        .appendPattern("[d M uuuu h a]")
-                        .appendPattern("[d/MMM/uuuu h a]")
-                        .appendPattern("[d-MMM-uuuu h a]")
-                        .appendPattern("[d MMM uuuu h a]")
-                        .appendPattern("[d/MMMM/uuuu h a]")
-                        .appendPattern("[d-MMMM-uuuu h a]")
-                        .appendPattern("[d MMMM uuuu h a]")
-                        .appendPattern("[d/M h a]")
-                        .appendPattern("[d-M h a]")
-                        .appendPattern("[d M h a]")
-                        .appendPattern("[d/MMM h a]")
-                        .appendPattern("[d-MMM h a]")
-                        .appendPattern("[d MMM h a]")
-                        .appendPattern("[d/MMMM h a]")
-                        .appendPattern("[d-MMMM h a]")
-                        .appendPattern("[d MMMM h a]")
-
-                        .appendPattern("[d/M/uuuu]")
-                        .appendPattern("[d-M-uuuu]")
-                        .appendPattern("[d M uuuu]")
-                        .appendPattern("[d/MMM/uuuu]")
-                        .appendPattern("[d-MMM-uuuu]")
-                        .appendPattern("[d MMM uuuu]")
-                        .appendPattern("[d/MMMM/uuuu]")
-                        .appendPattern("[d-MMMM-uuuu]")
-                        .appendPattern("[d MMMM uuuu]")
-                        .appendPattern("[d/M]")
-                        .appendPattern("[d-M]")
-                        .appendPattern("[d M]")
-                        .appendPattern("[d/MMM]")
-                        .appendPattern("[d-MMM]")
-                        .appendPattern("[d MMM]")
-                        .appendPattern("[d/MMMM]")
-                        .appendPattern("[d-MMMM]")
-                        .appendPattern("[d MMMM]")
-
-                        .appendPattern("[HHmm]")
-                        .appendPattern("[HH:mm]")
-                        .appendPattern("[h:mm a]")
-                        .appendPattern("[h a]")
-                        .parseDefaulting(ChronoField.YEAR, Year.now().getValue());
-        DateTimeFormatter dateTimeFormatter = dateTimeFormatterBuilder.toFormatter();
-        try {
-            return getDate(str.trim(), dateTimeFormatter);
-        } catch (DateTimeParseException e) {
-            throw new ChaterpillarException(
-                    "Invalid date format! I accept quite a number of common date format, "
-                    + "but here is one you can use: DD/MM/YYY HH:MM");
-        }
+    public DateTime(long epochMinute, boolean hasOnlyDate) {
+        this.epochMinute = epochMinute;
+        this.epochDay = Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+        this.hasOnlyDate = hasOnlyDate;
+        this.hasOnlyTime = false;
     }
 
     /**
-     * Gets the date and/or time from String with default values.
+     * Parses the string of date and/or time.
      *
-     * @param s <code>String</code> of Date and/or Time
-     * @param format <code>DateTimeFormatter</code> object
-     * @return <code>LocalDateTime</code> object
+     * @param str <code>String</code> of date and/or time
+     * @return minutes since the epoch and whether there is only a date,
+     *     packed as by <code>DateTimeScanner</code>.
+     * @throws ChaterpillarException if the string provided is in the
+     *     invalid/unaccepted format.
      */
-    private LocalDateTime getDate(String s, DateTimeFormatter format)
-            throws ChaterpillarException {
-        assert !s.isBlank() : "DateTime String should not be blank";
-        try {
-            TemporalAccessor dt = format.parseBest(s, LocalDateTime::from,
-                    LocalDate::from, LocalTime::from, YearMonth::from);
-
-            if (dt instanceof LocalDate) {
-                hasOnlyDate = true;
-                return ((LocalDate) dt).atStartOfDay();
-            } else if (dt instanceof LocalTime) {
-                return ((LocalTime) dt).atDate(LocalDate.now());
-            } else if (dt instanceof YearMonth) {
-                hasOnlyDate = true;
-                return ((YearMonth) dt).atDay(1).atStartOfDay();
-            } else {
-                return LocalDateTime.from(dt);
-            }
-        } catch (DateTimeParseException e) {
+    private static long parseDateTime(String str) throws ChaterpillarException {
+        String trimmed = str.trim();
+        assert !trimmed.isBlank() : "DateTime String should not be blank";
+        long scanned = DateTimeScanner.scan(trimmed, Year.now().getValue());
+        if (scanned == DateTimeScanner.FAILED) {
             throw new ChaterpillarException("Error in parsing string for date/time.\n"
                                             + "I accept quite a number of common date format, \n"
                                             + "but here is one you can use: DD/MM/YYY HH:MM");
         }
+        return scanned;
     }
 
     /**
@@ -198,7 +98,7 @@ public class DateTime {
      *     objects has the same date.
      */
     public boolean isSameDay(DateTime date) {
-        return this.dateTime.toLocalDate().isEqual(date.dateTime.toLocalDate());
+        return this.epochDay == date.epochDay;
     }
 
     /**
@@ -211,10 +111,10 @@ public class DateTime {
      *     and <code>false</code> if it is not.
      */
     public boolean isWithinDate(DateTime dtStart, DateTime dtEnd) {
-        boolean isAfterStartDate = dateTime.toLocalDate().isAfter(dtStart.dateTime.toLocalDate());
-        boolean isBeforeEndDate = dateTime.toLocalDate().isBefore(dtEnd.dateTime.toLocalDate());
-        boolean isEqualStartDate = dateTime.toLocalDate().isEqual(dtStart.dateTime.toLocalDate());
-        boolean isEqualEndDate = dateTime.toLocalDate().isEqual(dtEnd.dateTime.toLocalDate());
+        boolean isAfterStartDate = epochDay > dtStart.epochDay;
+        boolean isBeforeEndDate = epochDay < dtEnd.epochDay;
+        boolean isEqualStartDate = epochDay == dtStart.epochDay;
+        boolean isEqualEndDate = epochDay == dtEnd.epochDay;
 
         if (isAfterStartDate && isBeforeEndDate) {
             return true;
@@ -222,12 +122,42 @@ public class DateTime {
             return isEqualStartDate || isEqualEndDate;
         }
     }
+
+    /**
+     * Gets the date and time as minutes since 1/Jan/1970 00:00, in local time.
+     *
+     * @return number of minutes since the epoch.
+     */
+    public long toEpochMinute() {
+        return this.epochMinute;
+    }
+
+    /**
+     * Gets the date as days since 1/Jan/1970.
+     *
+     * @return number of days since the epoch.
+     */
+    public long toEpochDay() {
+        return this.epochDay;
+    }
+
+    /**
+     * Checks if only the date of this <code>DateTime</code> is shown.
+     *
+     * @return <code>true</code> if there is no time component.
+     */
+    public boolean hasOnlyDate() {
+        return this.hasOnlyDate;
+    }
+
     @Override
     public String toString() {
+        LocalDateTime dateTime = LocalDateTime.of(LocalDate.ofEpochDay(epochDay),
+                LocalTime.ofSecondOfDay(Math.floorMod(epochMinute, MINUTES_PER_DAY) * 60));
         if (hasOnlyDate) {
-            return this.dateTime.format(DateTimeFormatter.ofPattern("d/MMM/yyyy"));
+            return dateTime.format(CANONICAL_DATE_FORMAT);
         } else {
-            return this.dateTime.format(DateTimeFormatter.ofPattern("d/MMM/yyyy hh:mm a"));
+            return dateTime.format(CANONICAL_DATE_TIME_FORMAT);
         }
     }
 }
@@ -0,0 +1,444 @@
+package chaterpillar.datetime;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Hand-written scanner for every date and/or time format accepted by
+ * <code>DateTime</code>. It tries the same patterns, in the same order and
+ * with the same rules, as the <code>DateTimeFormatterBuilder</code> it replaces,
+ * but reports failure through its return value instead of by throwing
+ * <code>DateTimeParseException</code>, and does not allocate while scanning:
+ * each thread reuses the same scratch state for all of its scans. Only a
+ * string with a time and no date allocates, to find today's date.
+ *
+ * <p>Each pattern is an optional section: the first one that matches from the
+ * current position consumes its text, and the later ones carry on from there.
+ * The whole string must be consumed. As with <code>ResolverStyle.SMART</code>,
+ * a day past the end of the month is moved back to its last day, and
+ * <code>24:00</code> is midnight of the following day.
+ *
+ * @author marclamp
+ */
+final class DateTimeScanner {
+    /** Returned by <code>scan</code> when the string is not in an accepted format. */
+    static final long FAILED = Long.MIN_VALUE;
+
+    /** Patterns in the order they are tried, using <code>DateTimeFormatter</code> letters. */
+    static final String[] PATTERNS = {
+        "d/M/uuuu HHmm", "d-M-uuuu HHmm", "d M uuuu HHmm",
+        "d/MMM/uuuu HHmm", "d-MMM-uuuu HHmm", "d MMM uuuu HHmm",
+        "d/MMMM/uuuu HHmm", "d-MMMM-uuuu HHmm", "d MMMM uuuu HHmm",
+        "d/M HHmm", "d-M HHmm", "d M HHmm",
+        "d/MMM HHmm", "d-MMM HHmm", "d MMM HHmm",
+        "d/MMMM HHmm", "d-MMMM HHmm", "d MMMM HHmm",
+
+        "d/M/uuuu h:mm a", "d-M-uuuu h:mm a", "d M uuuu h:mm a",
+        "d/MMM/uuuu h:mm a", "d-MMM-uuuu h:mm a", "d MMM uuuu h:mm a",
+        "d/MMMM/uuuu h:mm a", "d-MMMM-uuuu h:mm a", "d MMMM uuuu h:mm a",
+        "d/M h:mm a", "d-M h:mm a", "d M h:mm a",
+        "d/MMM h:mm a", "d-MMM h:mm a", "d MMM h:mm a",
+        "d/MMMM h:mm a", "d-MMMM h:mm a", "d MMMM h:mm a",
+
+        "d/M/uuuu h a", "d-M-uuuu h a", "d M uuuu h a",
+        "d/MMM/uuuu h a", "d-MMM-uuuu h a", "d MMM uuuu h a",
+        "d/MMMM/uuuu h a", "d-MMMM-uuuu h a", "d MMMM uuuu h a",
+        "d/M h a", "d-M h a", "d M h a",
+        "d/MMM h a", "d-MMM h a", "d MMM h a",
+        "d/MMMM h a", "d-MMMM h a", "d MMMM h a",
+
+        "d/M/uuuu", "d-M-uuuu", "d M uuuu",
+        "d/MMM/uuuu", "d-MMM-uuuu", "d MMM uuuu",
+        "d/MMMM/uuuu", "d-MMMM-uuuu", "d MMMM uuuu",
+        "d/M", "d-M", "d M",
+        "d/MMM", "d-MMM", "d MMM",
+        "d/MMMM", "d-MMMM", "d MMMM",
+
+        "HHmm", "HH:mm", "h:mm a", "h a"
+    };
+
+    // Elements of a compiled pattern. Any other value is a literal character.
+    private static final int DAY = -1;
+    private static final int MONTH = -2;
+    private static final int MONTH_SHORT = -3;
+    private static final int MONTH_FULL = -4;
+    private static final int YEAR = -5;
+    private static final int HOUR_OF_DAY = -6;
+    private static final int MINUTE = -7;
+    private static final int CLOCK_HOUR = -8;
+    private static final int AM_PM = -9;
+
+    private static final int FIELD_COUNT = 7;
+    private static final int F_DAY = 0;
+    private static final int F_MONTH = 1;
+    private static final int F_YEAR = 2;
+    private static final int F_HOUR_OF_DAY = 3;
+    private static final int F_MINUTE = 4;
+    private static final int F_CLOCK_HOUR = 5;
+    private static final int F_AM_PM = 6;
+
+    private static final long UNSET = Long.MIN_VALUE;
+    private static final long MINUTES_PER_DAY = 24 * 60;
+    private static final long DAYS_0000_TO_1970 = 719528;
+    private static final int MAX_DIGITS = 19;
+
+    private static final int[][] SECTIONS = compileAll();
+    private static final ThreadLocal<Scan> SCANS = ThreadLocal.withInitial(Scan::new);
+    private static final String[] SHORT_MONTHS = new String[12];
+    private static final String[] FULL_MONTHS = new String[12];
+    private static final String[] AM_PM_TEXTS = new String[2];
+
+    static {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        for (int i = 0; i < 12; i++) {
+            SHORT_MONTHS[i] = Month.of(i + 1).getDisplayName(TextStyle.SHORT, locale);
+            FULL_MONTHS[i] = Month.of(i + 1).getDisplayName(TextStyle.FULL, locale);
+        }
+        DateTimeFormatter amPm = DateTimeFormatter.ofPattern("a", locale);
+        AM_PM_TEXTS[0] = amPm.format(LocalTime.MIDNIGHT);
+        AM_PM_TEXTS[1] = amPm.format(LocalTime.NOON);
+    }
+
+    private DateTimeScanner() {
+    }
+
+    private static int[][] compileAll() {
+        int[][] sections = new int[PATTERNS.length][];
+        for (int i = 0; i < PATTERNS.length; i++) {
+            sections[i] = compile(PATTERNS[i]);
+        }
+        return sections;
+    }
+
+    private static int[] compile(String pattern) {
+        int[] elements = new int[pattern.length()];
+        int count = 0;
+        int i = 0;
+        while (i < pattern.length()) {
+            char letter = pattern.charAt(i);
+            int run = 1;
+            while (i + run < pattern.length() && pattern.charAt(i + run) == letter && Character.isLetter(letter)) {
+                run++;
+            }
+            elements[count++] = toElement(letter, run);
+            i += run;
+        }
+        int[] compiled = new int[count];
+        System.arraycopy(elements, 0, compiled, 0, count);
+        return compiled;
+    }
+
+    private static int toElement(char letter, int run) {
+        switch (letter) {
+        case 'd':
+            return DAY;
+        case 'M':
+            return run == 1 ? MONTH : run == 3 ? MONTH_SHORT : MONTH_FULL;
+        case 'u':
+            return YEAR;
+        case 'H':
+            return HOUR_OF_DAY;
+        case 'm':
+            return MINUTE;
+        case 'h':
+            return CLOCK_HOUR;
+        case 'a':
+            return AM_PM;
+        default:
+            return letter;
+        }
+    }
+
+    /**
+     * Scans a trimmed string of date and/or time.
+     *
+     * @param text string to be scanned.
+     * @param defaultYear year used when the string has none.
+     * @return the minutes since 1/Jan/1970 00:00 shifted left by one, with the lowest
+     *     bit set if the string has only a date; or <code>FAILED</code>.
+     */
+    static long scan(String text, int defaultYear) {
+        return SCANS.get().run(text, defaultYear);
+    }
+
+    /**
+     * Packs the result of a scan.
+     */
+    static long pack(long epochMinute, boolean hasOnlyDate) {
+        return (epochMinute << 1) | (hasOnlyDate ? 1 : 0);
+    }
+
+    static long unpackEpochMinute(long packed) {
+        return packed >> 1;
+    }
+
+    static boolean unpackHasOnlyDate(long packed) {
+        return (packed & 1) != 0;
+    }
+
+    /**
+     * State of a scan: the fields parsed so far, and a scratch copy for the
+     * section being tried, which is only kept if the whole section matches.
+     * It is reused by every scan on one thread.
+     */
+    private static final class Scan {
+        private final long[] fields = new long[FIELD_COUNT * 2];
+        private String text;
+
+        long run(String text, int defaultYear) {
+            this.text = text;
+            Arrays.fill(fields, UNSET);
+            long result = scanSections(defaultYear);
+            this.text = null;
+            return result;
+        }
+
+        private long scanSections(int defaultYear) {
+            int position = 0;
+            for (int[] section : SECTIONS) {
+                System.arraycopy(fields, 0, fields, FIELD_COUNT, FIELD_COUNT);
+                int end = matchSection(section, position);
+                if (end >= 0) {
+                    System.arraycopy(fields, FIELD_COUNT, fields, 0, FIELD_COUNT);
+                    position = end;
+                }
+            }
+            if (position != text.length()) {
+                return FAILED;
+            }
+            return resolve(defaultYear);
+        }
+
+        /**
+         * Matches one section into the scratch fields.
+         *
+         * @return position after the section, or -1 if it does not match.
+         */
+        private int matchSection(int[] section, int position) {
+            int pos = position;
+            for (int element : section) {
+                if (pos < 0) {
+                    return -1;
+                }
+                switch (element) {
+                case DAY:
+                    pos = matchNumber(pos, F_DAY);
+                    break;
+                case MONTH:
+                    pos = matchNumber(pos, F_MONTH);
+                    break;
+                case CLOCK_HOUR:
+                    pos = matchNumber(pos, F_CLOCK_HOUR);
+                    break;
+                case YEAR:
+                    pos = matchYear(pos);
+                    break;
+                case HOUR_OF_DAY:
+                    pos = matchTwoDigits(pos, F_HOUR_OF_DAY);
+                    break;
+                case MINUTE:
+                    pos = matchTwoDigits(pos, F_MINUTE);
+                    break;
+                case MONTH_SHORT:
+                    pos = matchText(pos, SHORT_MONTHS, 1, F_MONTH);
+                    break;
+                case MONTH_FULL:
+                    pos = matchText(pos, FULL_MONTHS, 1, F_MONTH);
+                    break;
+                case AM_PM:
+                    pos = matchText(pos, AM_PM_TEXTS, 0, F_AM_PM);
+                    break;
+                default:
+                    pos = pos < text.length() && text.charAt(pos) == element ? pos + 1 : -1;
+                    break;
+                }
+            }
+            return pos;
+        }
+
+        /**
+         * Records a field, failing if it was already parsed with another value.
+         */
+        private int set(int field, long value, int end) {
+            long old = fields[FIELD_COUNT + field];
+            if (old != UNSET && old != value) {
+                return -1;
+            }
+            fields[FIELD_COUNT + field] = value;
+            return end;
+        }
+
+        private int countDigits(int from, int max) {
+            int end = from;
+            while (end < text.length() && end - from < max && isDigit(text.charAt(end))) {
+                end++;
+            }
+            return end - from;
+        }
+
+        private long valueOf(int from, int digits) {
+            long value = 0;
+            for (int i = from; i < from + digits; i++) {
+                value = value * 10 + (text.charAt(i) - '0');
+            }
+            return value;
+        }
+
+        /**
+         * Matches a number of 1 to 19 digits, which may be negative.
+         */
+        private int matchNumber(int position, int field) {
+            boolean isNegative = position < text.length() && text.charAt(position) == '-';
+            int from = isNegative ? position + 1 : position;
+            int digits = countDigits(from, MAX_DIGITS);
+            if (digits == 0) {
+                return -1;
+            }
+            // values too large for the field are rejected when resolving anyway
+            long value = digits > 18 ? Long.MAX_VALUE : valueOf(from, digits);
+            if (isNegative && value == 0) {
+                return -1;
+            }
+            return set(field, isNegative ? -value : value, from + digits);
+        }
+
+        /**
+         * Matches a year of exactly 4 digits, optionally after a '-',
+         * or of more than 4 digits after a '+'.
+         */
+        private int matchYear(int position) {
+            char sign = position < text.length() ? text.charAt(position) : 0;
+            boolean hasSign = sign == '+' || sign == '-';
+            int from = hasSign ? position + 1 : position;
+            int digits = countDigits(from, MAX_DIGITS);
+            if (digits < 4 || (sign == '+' && digits == 4) || (sign != '+' && digits > 4)) {
+                return -1;
+            }
+            long value = digits > 18 ? Long.MAX_VALUE : valueOf(from, digits);
+            if (sign == '-' && value == 0) {
+                return -1;
+            }
+            return set(F_YEAR, sign == '-' ? -value : value, from + digits);
+        }
+
+        private int matchTwoDigits(int position, int field) {
+            if (countDigits(position, 2) != 2) {
+                return -1;
+            }
+            return set(field, valueOf(position, 2), position + 2);
+        }
+
+        private int matchText(int position, String[] texts, int firstValue, int field) {
+            int bestIndex = -1;
+            for (int i = 0; i < texts.length; i++) {
+                boolean isLonger = bestIndex < 0 || texts[i].length() > texts[bestIndex].length();
+                if (isLonger && text.startsWith(texts[i], position)) {
+                    bestIndex = i;
+                }
+            }
+            if (bestIndex < 0) {
+                return -1;
+            }
+            return set(field, bestIndex + firstValue, position + texts[bestIndex].length());
+        }
+
+        /**
+         * Combines the parsed fields into a date and/or time.
+         */
+        private long resolve(int defaultYear) {
+            long year = fields[F_YEAR] == UNSET ? defaultYear : fields[F_YEAR];
+            long month = fields[F_MONTH];
+            long day = fields[F_DAY];
+
+            boolean hasDate = month != UNSET && day != UNSET;
+            if (hasDate && (month < 1 || month > 12 || day < 1 || day > 31
+                    || year < -999_999_999 || year > 999_999_999)) {
+                return FAILED;
+            }
+
+            long hourOfDay = fields[F_HOUR_OF_DAY];
+            long clockHour = fields[F_CLOCK_HOUR];
+            long amPm = fields[F_AM_PM];
+            if (clockHour != UNSET) {
+                if (clockHour != 0 && (clockHour < 1 || clockHour > 12)) {
+                    return FAILED;
+                }
+                if (amPm != UNSET) {
+                    long fromAmPm = amPm * 12 + (clockHour == 12 ? 0 : clockHour);
+                    if (hourOfDay != UNSET && hourOfDay != fromAmPm) {
+                        return FAILED;
+                    }
+                    hourOfDay = fromAmPm;
+                }
+            }
+
+            long minute = fields[F_MINUTE];
+            boolean hasTime = hourOfDay != UNSET;
+            long minuteOfDay = 0;
+            long excessDays = 0;
+            if (hasTime) {
+                minute = minute == UNSET ? 0 : minute;
+                if (minute < 0 || minute > 59) {
+                    return FAILED;
+                }
+                if (hourOfDay == 24 && minute == 0) {
+                    excessDays = 1;
+                } else if (hourOfDay < 0 || hourOfDay > 23) {
+                    return FAILED;
+                } else {
+                    minuteOfDay = hourOfDay * 60 + minute;
+                }
+            }
+
+            if (hasDate) {
+                long epochDay = toEpochDay((int) year, (int) month, (int) day);
+                if (!hasTime) {
+                    return pack(epochDay * MINUTES_PER_DAY, true);
+                }
+                return pack((epochDay + excessDays) * MINUTES_PER_DAY + minuteOfDay, false);
+            } else if (hasTime) {
+                return pack(LocalDate.now().toEpochDay() * MINUTES_PER_DAY + minuteOfDay, false);
+            } else {
+                return FAILED;
+            }
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLeap(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Gets the day since 1/Jan/1970 of a date, moving a day past the end of
+     * the month back to its last day. Same arithmetic as <code>LocalDate.toEpochDay</code>.
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        int lastDay = month == 2 ? (isLeap(year) ? 29 : 28)
+                : (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += Math.min(day, lastDay) - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeap(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
@@ -6,6 +6,8 @@ package chaterpillar.exceptions;
  * @author marclamp
  */
 public class ChaterpillarException extends Exception {
+    private static final long serialVersionUID = 1L;
+
     public ChaterpillarException(String message) {
         super(message);
     }
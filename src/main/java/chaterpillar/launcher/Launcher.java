@@ -1,12 +1,20 @@
 package chaterpillar.launcher;
 
+import java.util.Arrays;
+
+import chaterpillar.BatchMode;
 import javafx.application.Application;
 
 /**
- * A launcher class to workaround classpath issues.
+ * A launcher class to workaround classpath issues. With <code>--batch</code>,
+ * runs a script of commands without the GUI instead.
  */
 public class Launcher {
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains(BatchMode.BATCH_FLAG)) {
+            BatchMode.main(args);
+            return;
+        }
         Application.launch(Main.class, args);
     }
 }
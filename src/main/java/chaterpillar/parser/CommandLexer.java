@@ -0,0 +1,200 @@
+package chaterpillar.parser;
+
+import java.util.Arrays;
+
+/**
+ * Splits a command typed by the user into its command word, the words after
+ * it and the values of its flags, such as <code>/by</code>, in a single pass
+ * over the input by index. Only the bounds of each part are kept, and a part
+ * is only copied out of the input when it is asked for, so lexing uses no
+ * regular expressions and creates no arrays of strings.
+ *
+ * <p>A flag is a word made of a '/' and the name of one of the flags the
+ * commands take, and its value is the text up to the next flag, trimmed.
+ * The words before the first flag are the arguments of the command. Any
+ * other '/', such as in <code>6/2/2024</code> or a path, is part of a word.
+ *
+ * @author marclamp
+ */
+public class CommandLexer {
+    private static final String[] FLAG_NAMES = {"by", "from", "to", "name", "date", "start", "end",
+                                                "every", "continue"};
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final String input;
+    private final int wordEnd;
+    private final int restStart;
+    private int textEnd;
+    /** Start and end of each argument, one after the other. */
+    private int[] argBounds = new int[2 * INITIAL_CAPACITY];
+    private int argCount;
+    /** Index in <code>FLAG_NAMES</code>, start and end of the value of each flag. */
+    private int[] flags = new int[3 * INITIAL_CAPACITY];
+    private int flagCount;
+
+    /**
+     * Lexes a command typed by the user.
+     *
+     * @param input command typed by the user.
+     */
+    public CommandLexer(String input) {
+        this.input = input;
+        int length = input.length();
+        int i = 0;
+        while (i < length && input.charAt(i) != ' ') {
+            i++;
+        }
+        this.wordEnd = i;
+        this.restStart = Math.min(i + 1, length);
+        this.textEnd = length;
+
+        while (i < length) {
+            if (input.charAt(i) == ' ') {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && input.charAt(i) != ' ') {
+                i++;
+            }
+            int flag = input.charAt(start) == '/' ? indexOfFlag(start + 1, i) : -1;
+            if (flag >= 0) {
+                addFlag(flag, start, i);
+            } else if (flagCount == 0) {
+                addArg(start, i);
+            }
+        }
+        if (flagCount > 0) {
+            flags[3 * flagCount - 1] = length;
+        }
+    }
+
+    private int indexOfFlag(int nameStart, int nameEnd) {
+        for (int f = 0; f < FLAG_NAMES.length; f++) {
+            String name = FLAG_NAMES[f];
+            if (name.length() == nameEnd - nameStart && input.startsWith(name, nameStart)) {
+                return f;
+            }
+        }
+        return -1;
+    }
+
+    private void addArg(int start, int end) {
+        if (2 * argCount == argBounds.length) {
+            argBounds = Arrays.copyOf(argBounds, 2 * argBounds.length);
+        }
+        argBounds[2 * argCount] = start;
+        argBounds[2 * argCount + 1] = end;
+        argCount++;
+    }
+
+    private void addFlag(int flag, int flagStart, int valueStart) {
+        if (flagCount == 0) {
+            textEnd = flagStart;
+        } else {
+            flags[3 * flagCount - 1] = flagStart;
+        }
+        if (3 * flagCount == flags.length) {
+            flags = Arrays.copyOf(flags, 2 * flags.length);
+        }
+        flags[3 * flagCount] = flag;
+        flags[3 * flagCount + 1] = valueStart;
+        flagCount++;
+    }
+
+    /**
+     * Gets the first word of the command, such as <code>todo</code>.
+     *
+     * @return the command word, which is empty if the input starts with a space.
+     */
+    public String getCommandWord() {
+        return input.substring(0, wordEnd);
+    }
+
+    /**
+     * Gets the number of words after the command word and before the first flag.
+     *
+     * @return number of arguments.
+     */
+    public int getArgCount() {
+        return argCount;
+    }
+
+    /**
+     * Gets a word after the command word and before the first flag.
+     *
+     * @param index index of the argument, starting from 0.
+     * @return the argument.
+     * @throws IndexOutOfBoundsException if there are not that many arguments.
+     */
+    public String getArg(int index) {
+        if (index < 0 || index >= argCount) {
+            throw new IndexOutOfBoundsException("Argument " + index + " out of bounds for " + argCount);
+        }
+        return input.substring(argBounds[2 * index], argBounds[2 * index + 1]);
+    }
+
+    /**
+     * Gets everything after the command word and the space after it, as typed.
+     *
+     * @return rest of the input, which may be empty.
+     */
+    public String getRest() {
+        return input.substring(restStart);
+    }
+
+    /**
+     * Gets the text from the start of an argument up to the first flag,
+     * trimmed, such as the name of a task or a list of tasks.
+     *
+     * @param index index of the first argument of the text.
+     * @return the text, which is empty if there are not that many arguments.
+     */
+    public String getTextFrom(int index) {
+        if (index >= argCount) {
+            return "";
+        }
+        return trimmed(argBounds[2 * index], textEnd);
+    }
+
+    /**
+     * Checks if the command has a flag.
+     *
+     * @param name name of the flag, without the '/'.
+     * @return <code>true</code> if the flag was typed.
+     */
+    public boolean hasFlag(String name) {
+        return findFlag(name) >= 0;
+    }
+
+    /**
+     * Gets the value of the first of a flag, up to the next flag, trimmed.
+     *
+     * @param name name of the flag, without the '/'.
+     * @return value of the flag, which may be empty, or <code>null</code> if
+     *     the flag was not typed.
+     */
+    public String getFlag(String name) {
+        int f = findFlag(name);
+        return f < 0 ? null : trimmed(flags[3 * f + 1], flags[3 * f + 2]);
+    }
+
+    private int findFlag(String name) {
+        for (int f = 0; f < flagCount; f++) {
+            if (FLAG_NAMES[flags[3 * f]].equals(name)) {
+                return f;
+            }
+        }
+        return -1;
+    }
+
+    private String trimmed(int start, int end) {
+        while (start < end && input.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && input.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return input.substring(start, end);
+    }
+}
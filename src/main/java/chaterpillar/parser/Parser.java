@@ -1,23 +1,44 @@
 package chaterpillar.parser;
 
+import java.nio.file.Paths;
 import java.time.format.DateTimeParseException;
 
+import chaterpillar.commands.BatchRunner;
 import chaterpillar.commands.Command;
+import chaterpillar.commands.ConvertCommand;
 import chaterpillar.commands.DeleteCommand;
+import chaterpillar.commands.DeleteSelectionCommand;
+import chaterpillar.commands.DurabilityCommand;
 import chaterpillar.commands.ExitCommand;
 import chaterpillar.commands.FindCommand;
+import chaterpillar.commands.FsyncCommand;
 import chaterpillar.commands.HelpCommand;
 import chaterpillar.commands.ListAllCommand;
+import chaterpillar.commands.ListCommand;
 import chaterpillar.commands.MarkCommand;
+import chaterpillar.commands.MarkSelectionCommand;
+import chaterpillar.commands.MoreCommand;
+import chaterpillar.commands.RedoCommand;
+import chaterpillar.commands.RunCommand;
+import chaterpillar.commands.SyncCommand;
 import chaterpillar.commands.TaskCommand;
+import chaterpillar.commands.TasksDueBeforeCommand;
+import chaterpillar.commands.TasksDueBetweenCommand;
 import chaterpillar.commands.TasksTodayCommand;
+import chaterpillar.commands.UndoCommand;
 import chaterpillar.commands.UnmarkCommand;
 import chaterpillar.commands.UnrecognisedCommand;
 import chaterpillar.commands.UpdateCommand;
+import chaterpillar.datetime.DateTime;
 import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.storage.DurabilityMode;
+import chaterpillar.storage.FsyncPolicy;
+import chaterpillar.storage.StorageFormat;
 import chaterpillar.tasks.DeadlineTask;
 import chaterpillar.tasks.EventTask;
 import chaterpillar.tasks.Task;
+import chaterpillar.tasks.TaskReference;
+import chaterpillar.tasks.TaskSelection;
 import chaterpillar.tasks.TodoTask;
 
 /**
@@ -28,6 +49,7 @@ import chaterpillar.tasks.TodoTask;
 public class Parser {
     /**
      * Generates <code>Task</code> object from one line of <code>String</code> from a file.
+     * The line may start with the id of the task, which older files do not have.
      *
      * @param str line describing task, loaded from file
      * @return <code>Task</code> object.
@@ -35,33 +57,44 @@ public class Parser {
      */
     public static Task parseFromFile(String str) throws ChaterpillarException {
         try {
-            String[] eachLine = str.split("\\|");
-            String taskType = eachLine[0];
-            boolean isMarked = Boolean.parseBoolean(eachLine[1]);
-            String taskName = eachLine[2];
-
-            switch (taskType) {
-            case "T": {
-                return new TodoTask(taskName, isMarked);
-            }
-            case "D": {
-                String dueDate = eachLine[3];
-                return new DeadlineTask(taskName, isMarked, dueDate);
-            }
-            case "E": {
-                String startDate = eachLine[3];
-                String endDate = eachLine[4];
-                return new EventTask(taskName, isMarked, startDate, endDate);
+            long id = 0;
+            String line = str;
+            if (!line.isEmpty() && Character.isDigit(line.charAt(0))) {
+                int idEnd = line.indexOf('|');
+                id = Long.parseLong(line.substring(0, idEnd));
+                line = line.substring(idEnd + 1);
             }
-            default:
-                throw new ChaterpillarException(
-                        "Error in type of task of this line: \n" + str);
-            }
-        } catch (IndexOutOfBoundsException e) {
+            return parseTaskFromFile(line, str).withId(id);
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
             throw new ChaterpillarException("Error in formatting of this line: \n" + str);
         }
     }
 
+    private static Task parseTaskFromFile(String line, String str) throws ChaterpillarException {
+        String[] eachLine = line.split("\\|");
+        String taskType = eachLine[0];
+        boolean isMarked = Boolean.parseBoolean(eachLine[1]);
+        String taskName = eachLine[2];
+
+        switch (taskType) {
+        case "T": {
+            return new TodoTask(taskName, isMarked);
+        }
+        case "D": {
+            String dueDate = eachLine[3];
+            return new DeadlineTask(taskName, isMarked, dueDate);
+        }
+        case "E": {
+            String startDate = eachLine[3];
+            String endDate = eachLine[4];
+            return new EventTask(taskName, isMarked, startDate, endDate);
+        }
+        default:
+            throw new ChaterpillarException(
+                    "Error in type of task of this line: \n" + str);
+        }
+    }
+
     /**
      * Parses the string read from the input of the user.
      * Outputs the respective <code>Command</code> object.
@@ -73,42 +106,51 @@ public class Parser {
      *     wrongly or if there are missing components in the command.
      */
     public static Command parse(String input) throws ChaterpillarException {
-        String[] inputSplit = input.split(" ");
+        CommandLexer lexer = new CommandLexer(input);
 
-        int taskIndex;
-        String[] tempInputArgs;
-        Task currTask;
-
-        switch (inputSplit[0]) {
+        switch (lexer.getCommandWord()) {
         case "list":
-            return new ListAllCommand();
+            return handleListFromInput(lexer);
+        case "more":
+            return new MoreCommand();
         case "mark":
-            taskIndex = Integer.parseInt(inputSplit[1]);
-            return new MarkCommand(taskIndex);
+            return handleMarkFromInput(lexer, true);
         case "unmark":
-            taskIndex = Integer.parseInt(inputSplit[1]);
-            return new UnmarkCommand(taskIndex);
+            return handleMarkFromInput(lexer, false);
         case "todo":
-            currTask = generateTodoTaskFromString(input);
-            return new TaskCommand(currTask);
+            return new TaskCommand(generateTodoTaskFromString(lexer));
         case "deadline":
-            tempInputArgs = input.split("/");
-            currTask = generateDeadlineTaskFromString(tempInputArgs);
-            return new TaskCommand(currTask);
+            return new TaskCommand(generateDeadlineTaskFromString(lexer));
         case "event":
-            tempInputArgs = input.split("/");
-            currTask = generateEventTaskFromString(tempInputArgs);
-            return new TaskCommand(currTask);
+            return new TaskCommand(generateEventTaskFromString(lexer));
         case "delete":
-            tempInputArgs = input.split(" ");
-            return handleDeleteFromInput(tempInputArgs);
+            return handleDeleteFromInput(lexer);
         case "update":
-            return handleUpdateFromInput(input);
+            return handleUpdateFromInput(lexer);
+        case "undo":
+            return new UndoCommand();
+        case "redo":
+            return new RedoCommand();
         case "find":
-            String keyword = input.substring(5);
-            return new FindCommand(keyword);
+            return new FindCommand(lexer.getRest());
+        case "search":
+            return new FindCommand(lexer.getRest(), FindCommand.Mode.WORDS);
+        case "find~":
+            return new FindCommand(lexer.getRest(), FindCommand.Mode.FUZZY);
         case "today":
             return new TasksTodayCommand();
+        case "due":
+            return handleDueFromInput(lexer);
+        case "convert":
+            return handleConvertFromInput(lexer);
+        case "run":
+            return handleRunFromInput(lexer);
+        case "sync":
+            return new SyncCommand();
+        case "durability":
+            return handleDurabilityFromInput(lexer);
+        case "fsync":
+            return handleFsyncFromInput(lexer);
         case "help":
             return new HelpCommand();
         case "bye":
@@ -122,73 +164,188 @@ public class Parser {
      * Generates a <code>TodoTask</code> from a String input.
      * Private helper method for <code>parse()</code> method.
      *
-     * @param input input string
+     * @param lexer lexed input
      * @return <code>TodoTask</code> according to input specification.
      * @throws ChaterpillarException if name of task is empty.
      */
-    private static Task generateTodoTaskFromString(String input) throws ChaterpillarException {
-        try {
-            String taskName = input.substring(5);
-            return new TodoTask(taskName);
-        } catch (StringIndexOutOfBoundsException e) {
+    private static Task generateTodoTaskFromString(CommandLexer lexer) throws ChaterpillarException {
+        String taskName = lexer.getRest();
+        if (taskName.isBlank()) {
             throw new ChaterpillarException("Sorry, the taskName of the task todo cannot be empty.\n"
                                             + "The way to use the command is as such: todo taskname");
         }
+        return new TodoTask(taskName);
     }
 
     /**
      * Generates a <code>DeadlineTask</code> from a String input.
      * Private helper method for <code>parse()</code> method.
      *
-     * @param tempInputArgs input arguments
+     * @param lexer lexed input
      * @return <code>DeadlineTask</code> according to input specification.
      * @throws ChaterpillarException if command or date is in the wrong format.
      */
-    private static Task generateDeadlineTaskFromString(String[] tempInputArgs) throws ChaterpillarException {
-        try {
-            String taskName = tempInputArgs[0].substring(9);
-            String date = tempInputArgs[1].substring(3);
-            return new DeadlineTask(taskName, date);
-        } catch (IndexOutOfBoundsException e) {
+    private static Task generateDeadlineTaskFromString(CommandLexer lexer) throws ChaterpillarException {
+        String date = lexer.getFlag("by");
+        if (date == null) {
             throw new ChaterpillarException("Sorry, this command is in the wrong format.\n"
                                             + "The way to use the command is: deadline taskname /by date_and_time");
+        }
+        try {
+            return new DeadlineTask(lexer.getTextFrom(0), date);
         } catch (DateTimeParseException e) {
             throw new ChaterpillarException("Unable to add task, wrong date/time format!\n"
                                             + "Suggested format: DD/MM/YYYY HH:MM AM/PM");
         }
     }
 
-    private static Task generateEventTaskFromString(String[] tempInputArgs) throws ChaterpillarException {
-        try {
-            String taskName = tempInputArgs[0].substring(6);
-            String date1 = tempInputArgs[1].substring(5);
-            String date2 = tempInputArgs[2].substring(3);
-            return new EventTask(taskName, date1, date2);
-        } catch (IndexOutOfBoundsException e) {
+    private static Task generateEventTaskFromString(CommandLexer lexer) throws ChaterpillarException {
+        String date1 = lexer.getFlag("from");
+        String date2 = lexer.getFlag("to");
+        if (date1 == null || date2 == null) {
             throw new ChaterpillarException("Sorry, this command is in the wrong format.\n"
                                             + "The way to use the command is: event taskname\n"
                                             + "/from date_and_time /to date_and_time");
+        }
+        try {
+            return new EventTask(lexer.getTextFrom(0), date1, date2);
         } catch (DateTimeParseException e) {
             throw new ChaterpillarException("Unable to add task, wrong date/time format!\n"
                                             + "Suggested format: DD/MM/YYYY HH:MM AM/PM");
         }
     }
 
-    private static DeleteCommand handleDeleteFromInput(String[] tempInputArgs) throws ChaterpillarException {
+    private static ListAllCommand handleListFromInput(CommandLexer lexer) throws ChaterpillarException {
+        if (lexer.getArgCount() == 0) {
+            return new ListAllCommand();
+        }
+        if (lexer.getArgCount() == 1 && lexer.getArg(0).equals("all")) {
+            return new ListAllCommand(true);
+        }
+        try {
+            boolean hasSize = lexer.getArgCount() == 4 && lexer.getArg(2).equals("size");
+            if (!lexer.getArg(0).equals("page") || (lexer.getArgCount() != 2 && !hasSize)) {
+                throw new IndexOutOfBoundsException();
+            }
+            int page = Integer.parseInt(lexer.getArg(1));
+            int pageSize = hasSize ? Integer.parseInt(lexer.getArg(3)) : ListCommand.DEFAULT_PAGE_SIZE;
+            if (page < 1 || pageSize < 1) {
+                throw new ChaterpillarException("The page and its size should not be less than 1.");
+            }
+            return new ListAllCommand(page, pageSize);
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            throw new ChaterpillarException("Sorry, the format for this command is wrong.\n"
+                                            + "The correct way to use the command is: "
+                                            + "list, list all, or list page number [size number]");
+        }
+    }
+
+    private static Command handleMarkFromInput(CommandLexer lexer, boolean isMarked) throws ChaterpillarException {
+        String args = lexer.getTextFrom(0);
+        if (TaskSelection.isSelection(args)) {
+            return new MarkSelectionCommand(parseSelection(args, lexer.getCommandWord()), isMarked);
+        }
+        TaskReference reference = TaskReference.parse(lexer.getArg(0));
+        return isMarked ? new MarkCommand(reference) : new UnmarkCommand(reference);
+    }
+
+    private static TaskSelection parseSelection(String args, String command) throws ChaterpillarException {
+        try {
+            return TaskSelection.parse(args);
+        } catch (NumberFormatException e) {
+            throw new ChaterpillarException("Sorry, the format for this command is wrong.\n"
+                                            + "The correct way to use the command is: " + command + " 1-5, "
+                                            + command + " 3,7,9-12, or " + command + " all [done-by date]");
+        }
+    }
+
+    private static Command handleDeleteFromInput(CommandLexer lexer) throws ChaterpillarException {
+        String args = lexer.getTextFrom(0);
+        if (TaskSelection.isSelection(args)) {
+            return new DeleteSelectionCommand(parseSelection(args, lexer.getCommandWord()));
+        }
         try {
-            int index = Integer.parseInt(tempInputArgs[1]) - 1;
-            return new DeleteCommand(index);
+            return new DeleteCommand(TaskReference.parse(lexer.getArg(0)));
         } catch (NumberFormatException e) {
             throw new ChaterpillarException("Sorry, there is no number detected.\n"
-                                            + "The correct way to use the command is: delete number");
+                                            + "The correct way to use the command is: delete number, or delete #id");
         } catch (IndexOutOfBoundsException e) {
             throw new ChaterpillarException("Sorry, the format for this command is wrong.\n"
-                                            + "The correct way to use the command is: delete number");
+                                            + "The correct way to use the command is: delete number, or delete #id");
+        }
+    }
+
+    private static Command handleDueFromInput(CommandLexer lexer) throws ChaterpillarException {
+        if (lexer.getArgCount() >= 2 && lexer.getArg(0).equals("before")) {
+            return new TasksDueBeforeCommand(new DateTime(lexer.getTextFrom(1)));
+        }
+        if (lexer.getArgCount() >= 2 && lexer.getArg(0).equals("between")) {
+            String dates = lexer.getTextFrom(1);
+            int and = dates.indexOf(" and ");
+            if (and >= 0 && dates.indexOf(" and ", and + 1) < 0) {
+                return new TasksDueBetweenCommand(new DateTime(dates.substring(0, and)),
+                        new DateTime(dates.substring(and + 5)));
+            }
+        }
+        throw new ChaterpillarException("Sorry, the format for this command is wrong.\n"
+                                        + "The correct way to use the command is:\n"
+                                        + "due before date, or due between date and date");
+    }
+
+    private static ConvertCommand handleConvertFromInput(CommandLexer lexer) throws ChaterpillarException {
+        try {
+            return new ConvertCommand(StorageFormat.valueOf(lexer.getArg(0).toUpperCase()));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new ChaterpillarException("Sorry, I can only convert to 'text' or 'binary'.\n"
+                                            + "The correct way to use the command is: convert binary");
+        }
+    }
+
+    private static RunCommand handleRunFromInput(CommandLexer lexer) throws ChaterpillarException {
+        try {
+            // the file name may contain spaces and slashes, so it is everything before the first flag
+            String fileName = lexer.getTextFrom(0);
+            String every = lexer.getFlag("every");
+            String shouldContinue = lexer.getFlag("continue");
+            if (fileName.isEmpty() || (shouldContinue != null && !shouldContinue.isEmpty())) {
+                throw new IllegalArgumentException();
+            }
+            int saveEvery = every == null ? BatchRunner.SAVE_AT_END : Integer.parseInt(every);
+            return new RunCommand(Paths.get(fileName), saveEvery, shouldContinue == null);
+        } catch (IllegalArgumentException e) {
+            // also catches InvalidPathException and negative numbers of commands between saves
+            throw new ChaterpillarException("Sorry, the format for this command is wrong.\n"
+                                            + "The correct way to use the command is: "
+                                            + "run file [/every number] [/continue]");
+        }
+    }
+
+    private static DurabilityCommand handleDurabilityFromInput(CommandLexer lexer) throws ChaterpillarException {
+        try {
+            DurabilityMode mode = DurabilityMode.valueOf(lexer.getArg(0).toUpperCase().replace('-', '_'));
+            long flushIntervalMillis = lexer.getArgCount() > 1 ? Long.parseLong(lexer.getArg(1)) : 0;
+            if (flushIntervalMillis < 0) {
+                throw new NumberFormatException();
+            }
+            return new DurabilityCommand(mode, flushIntervalMillis);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new ChaterpillarException("Sorry, the format for this command is wrong.\n"
+                                            + "The correct way to use the command is:\n"
+                                            + "durability {immediate|batched|on-exit} [interval in ms]");
         }
     }
 
-    private static UpdateCommand handleUpdateFromInput(String input) throws ChaterpillarException {
-        if (input.substring(6).isBlank()) {
+    private static FsyncCommand handleFsyncFromInput(CommandLexer lexer) throws ChaterpillarException {
+        try {
+            return new FsyncCommand(FsyncPolicy.valueOf(lexer.getArg(0).toUpperCase().replace('-', '_')));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new ChaterpillarException("Sorry, the format for this command is wrong.\n"
+                                            + "The correct way to use the command is: fsync {never|per-save|batched}");
+        }
+    }
+
+    private static UpdateCommand handleUpdateFromInput(CommandLexer lexer) throws ChaterpillarException {
+        if (lexer.getRest().isBlank()) {
             throw new ChaterpillarException("Nothing to update?\n"
                                             + "You can use the following tags:\n"
                                             + "/name - to update the name of the task\n"
@@ -198,50 +355,33 @@ public class Parser {
                                             + "e.g. update 3 /name new name of task /date new date");
         }
 
-        String[] tempInputArgs;
-        int index;
-        String updatedName = "";
-        String updatedDate = "";
-        String updatedStartDate = "";
-        String updatedEndDate = "";
-
-        tempInputArgs = input.split(" ");
+        TaskReference reference;
         try {
-            index = Integer.parseInt(tempInputArgs[1]) - 1;
-            if (index < 0) {
+            reference = TaskReference.parse(lexer.getArg(0));
+            if (!reference.isById() && Integer.parseInt(lexer.getArg(0)) < 1) {
                 throw new ChaterpillarException("Index should not be less than 1.");
             }
         } catch (IndexOutOfBoundsException | NumberFormatException e) {
             throw new ChaterpillarException("Invalid update command! Missing index of item to update.\n"
                                             + "The command should be as such:\n"
-                                            + "update 3 ...");
+                                            + "update 3 ..., or update #id ...");
         }
 
-        tempInputArgs = input.split("/name");
-        if (tempInputArgs.length > 1) {
-            updatedName = parseUpdateArgs(tempInputArgs);
-        }
-
-        tempInputArgs = input.split("/date");
-        if (tempInputArgs.length > 1) {
-            updatedDate = parseUpdateArgs(tempInputArgs);
-        }
-
-        tempInputArgs = input.split("/start");
-        if (tempInputArgs.length > 1) {
-            updatedStartDate = parseUpdateArgs(tempInputArgs);
-        }
-
-        tempInputArgs = input.split("/end");
-        if (tempInputArgs.length > 1) {
-            updatedEndDate = parseUpdateArgs(tempInputArgs);
-        }
-
-        return new UpdateCommand(index, updatedName, updatedDate, updatedStartDate, updatedEndDate);
+        String updatedName = parseUpdateArgs(lexer, "name");
+        String updatedDate = parseUpdateArgs(lexer, "date");
+        String updatedStartDate = parseUpdateArgs(lexer, "start");
+        String updatedEndDate = parseUpdateArgs(lexer, "end");
+        return new UpdateCommand(reference, updatedName, updatedDate, updatedStartDate, updatedEndDate);
     }
 
-    private static String parseUpdateArgs(String[] tempInputArgs) throws ChaterpillarException {
-        String output = tempInputArgs[1].split(" /")[0].trim();
+    /**
+     * Gets the value of one of the tags of an update, or blank if it was not typed.
+     */
+    private static String parseUpdateArgs(CommandLexer lexer, String tag) throws ChaterpillarException {
+        String output = lexer.getFlag(tag);
+        if (output == null) {
+            return "";
+        }
 
         if (output.isBlank()) {
             throw new ChaterpillarException("Invalid update command! You can use the following tags:\n"
@@ -0,0 +1,194 @@
+package chaterpillar.storage;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import chaterpillar.datetime.DateTime;
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.tasks.DeadlineTask;
+import chaterpillar.tasks.EventTask;
+import chaterpillar.tasks.Task;
+import chaterpillar.tasks.TodoTask;
+
+/**
+ * Reads and writes the list of tasks in the compact binary format.
+ * The file starts with the magic bytes <code>CHTP</code>, a version byte,
+ * the generation of the snapshot as a <code>long</code> (from version 3)
+ * and the number of records. Each record consists of a type byte
+ * (<code>T</code>, <code>D</code> or <code>E</code>), the id of the task as a
+ * <code>long</code> (from version 2), a marked flag, the
+ * length-prefixed UTF-8 name and, for each date of the task, its epoch
+ * minute followed by an only-date flag.
+ *
+ * @author marclamp
+ */
+class BinaryTaskCodec {
+    static final byte[] MAGIC = {'C', 'H', 'T', 'P'};
+    static final byte VERSION = 3;
+    private static final byte VERSION_WITHOUT_IDS = 1;
+    private static final byte VERSION_WITHOUT_GENERATION = 2;
+
+    private static final byte TYPE_TODO = 'T';
+    private static final byte TYPE_DEADLINE = 'D';
+    private static final byte TYPE_EVENT = 'E';
+
+    /**
+     * Checks if the file starts with the magic bytes of the binary format.
+     *
+     * @param path path of the file.
+     * @return <code>true</code> if the file is in the binary format.
+     * @throws ChaterpillarException if the file cannot be read.
+     */
+    static boolean isBinary(Path path) throws ChaterpillarException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return Arrays.equals(in.readNBytes(MAGIC.length), MAGIC);
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in opening the file.");
+        }
+    }
+
+    /**
+     * Reads every task from a file in the binary format.
+     *
+     * @param path path of the file.
+     * @return list of tasks, in the order they were written.
+     * @throws ChaterpillarException if the file cannot be read or is not in the binary format.
+     */
+    static ArrayList<Task> read(Path path) throws ChaterpillarException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            byte version = readVersion(in);
+            if (version > VERSION_WITHOUT_GENERATION) {
+                in.readLong();
+            }
+            int count = in.readInt();
+            ArrayList<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(in, version != VERSION_WITHOUT_IDS));
+            }
+            return tasks;
+        } catch (EOFException e) {
+            throw new ChaterpillarException("Error in formatting of the binary file: it ended too early.");
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in opening the file.");
+        }
+    }
+
+    /**
+     * Reads the generation of the snapshot in a file in the binary format.
+     *
+     * @param path path of the file.
+     * @return generation of the snapshot, which is 0 before version 3.
+     * @throws ChaterpillarException if the file cannot be read or is not in the binary format.
+     */
+    static long readGeneration(Path path) throws ChaterpillarException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return readVersion(in) > VERSION_WITHOUT_GENERATION ? in.readLong() : 0;
+        } catch (EOFException e) {
+            throw new ChaterpillarException("Error in formatting of the binary file: it ended too early.");
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in opening the file.");
+        }
+    }
+
+    private static byte readVersion(DataInputStream in) throws IOException, ChaterpillarException {
+        byte[] magic = in.readNBytes(MAGIC.length);
+        byte version = in.readByte();
+        if (!Arrays.equals(magic, MAGIC) || version < VERSION_WITHOUT_IDS || version > VERSION) {
+            throw new ChaterpillarException("Unsupported binary file version: " + version);
+        }
+        return version;
+    }
+
+    private static Task readTask(DataInputStream in, boolean hasId) throws IOException, ChaterpillarException {
+        byte type = in.readByte();
+        long id = hasId ? in.readLong() : 0;
+        return readTaskFields(in, type).withId(id);
+    }
+
+    private static Task readTaskFields(DataInputStream in, byte type) throws IOException, ChaterpillarException {
+        boolean isMarked = in.readBoolean();
+        byte[] name = new byte[in.readInt()];
+        in.readFully(name);
+        String taskName = new String(name, StandardCharsets.UTF_8);
+
+        switch (type) {
+        case TYPE_TODO:
+            return new TodoTask(taskName, isMarked);
+        case TYPE_DEADLINE:
+            return new DeadlineTask(taskName, isMarked, readDateTime(in));
+        case TYPE_EVENT:
+            DateTime from = readDateTime(in);
+            DateTime to = readDateTime(in);
+            return new EventTask(taskName, isMarked, from, to);
+        default:
+            throw new ChaterpillarException("Error in type of task in the binary file: " + type);
+        }
+    }
+
+    private static DateTime readDateTime(DataInputStream in) throws IOException {
+        long epochMinute = in.readLong();
+        boolean hasOnlyDate = in.readBoolean();
+        return new DateTime(epochMinute, hasOnlyDate);
+    }
+
+    /**
+     * Encodes every task in the binary format.
+     *
+     * @param tasks list of tasks to be encoded.
+     * @param generation generation of the snapshot.
+     * @return contents of the binary file.
+     */
+    static byte[] encode(List<Task> tasks, long generation) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(generation);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                writeTask(out, task);
+            }
+        } catch (IOException e) {
+            throw new AssertionError("ByteArrayOutputStream does not throw IOException", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        byte[] name = task.getTaskName().getBytes(StandardCharsets.UTF_8);
+        if (task instanceof DeadlineTask) {
+            out.writeByte(TYPE_DEADLINE);
+        } else if (task instanceof EventTask) {
+            out.writeByte(TYPE_EVENT);
+        } else {
+            out.writeByte(TYPE_TODO);
+        }
+        out.writeLong(task.getId());
+        out.writeBoolean(task.isMarked());
+        out.writeInt(name.length);
+        out.write(name);
+
+        if (task instanceof DeadlineTask) {
+            writeDateTime(out, ((DeadlineTask) task).getDateTime());
+        } else if (task instanceof EventTask) {
+            writeDateTime(out, ((EventTask) task).getDateTimeFrom());
+            writeDateTime(out, ((EventTask) task).getDateTimeTo());
+        }
+    }
+
+    private static void writeDateTime(DataOutputStream out, DateTime dateTime) throws IOException {
+        out.writeLong(dateTime.toEpochMinute());
+        out.writeBoolean(dateTime.hasOnlyDate());
+    }
+}
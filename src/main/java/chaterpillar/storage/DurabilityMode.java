@@ -0,0 +1,17 @@
+package chaterpillar.storage;
+
+/**
+ * Modes that control when journal records are written to disk,
+ * trading the latency of each command against how many changes
+ * can be lost if the application stops unexpectedly.
+ *
+ * @author marclamp
+ */
+public enum DurabilityMode {
+    /** Every change is written before the command replies. */
+    IMMEDIATE,
+    /** Changes are written by a background thread, at most once per flush interval. */
+    BATCHED,
+    /** Changes are only written on 'sync', on 'bye' or when the application shuts down. */
+    ON_EXIT
+}
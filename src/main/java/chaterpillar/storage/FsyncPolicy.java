@@ -0,0 +1,19 @@
+package chaterpillar.storage;
+
+/**
+ * Policies for when written data is forced out of the operating system's
+ * cache onto the disk.
+ *
+ * @author marclamp
+ */
+public enum FsyncPolicy {
+    /** Never force, leaving it to the operating system. */
+    NEVER,
+    /** Force after every snapshot and every journal write. */
+    PER_SAVE,
+    /**
+     * Force the journal once every <code>Storage.FSYNC_BATCH_SIZE</code> writes and on 'sync',
+     * and force every snapshot.
+     */
+    BATCHED
+}
@@ -0,0 +1,189 @@
+package chaterpillar.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.parser.Parser;
+import chaterpillar.tasks.Task;
+
+/**
+ * Loads large history files by memory-mapping them, splitting the mapped
+ * region into chunks on newline boundaries, and parsing the chunks in
+ * parallel on a <code>ForkJoinPool</code>. The tasks are returned in the
+ * same order as the lines in the file.
+ *
+ * <p>No reference to the mapped region is kept once the file is parsed, but
+ * it is only unmapped when garbage-collected. Windows cannot replace a file
+ * while it is still mapped, as a later snapshot does, so there the file is
+ * read into memory instead.
+ *
+ * @author marclamp
+ */
+class MappedHistoryLoader {
+    /** Files smaller than this (in bytes) are read line by line instead. */
+    static final long PARALLEL_LOAD_THRESHOLD = 1024 * 1024;
+    /** Approximate number of bytes parsed by each chunk. */
+    static final int CHUNK_SIZE = 256 * 1024;
+
+    private static final boolean IS_MAPPING_SAFE = !System.getProperty("os.name", "").startsWith("Windows");
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for this class, parsing on the common pool.
+     */
+    MappedHistoryLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Overloaded constructor that parses on the given pool.
+     *
+     * @param pool pool the chunks are parsed on.
+     */
+    MappedHistoryLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Checks if a file of the given size should be loaded by this class.
+     *
+     * @param size size of the file in bytes.
+     * @return <code>true</code> if the file is large enough to be worth mapping,
+     *     and small enough to be mapped as one region.
+     */
+    static boolean isWorthMapping(long size) {
+        return size >= PARALLEL_LOAD_THRESHOLD && size <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Loads every task from the file, in file order.
+     *
+     * @param path path of the history file.
+     * @return list of tasks read from the file.
+     * @throws ChaterpillarException if the file cannot be read or a line is malformed.
+     */
+    ArrayList<Task> load(Path path) throws ChaterpillarException {
+        ByteBuffer buffer = readWhole(path);
+        List<ChunkParser> chunks = new ArrayList<>();
+        int limit = buffer.limit();
+        int start = hasGenerationLine(buffer) ? findLineEnd(buffer, 1) : 0;
+        while (start < limit) {
+            int end = findLineEnd(buffer, Math.min(start + CHUNK_SIZE, limit));
+            chunks.add(new ChunkParser(buffer.slice(start, end - start)));
+            start = end;
+        }
+
+        for (ChunkParser chunk : chunks) {
+            pool.execute(chunk);
+        }
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (ChunkParser chunk : chunks) {
+            tasks.addAll(chunk.join());
+            if (chunk.error != null) {
+                throw chunk.error;
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Maps the whole file, or reads it into memory where a mapped file
+     * cannot be replaced.
+     */
+    private static ByteBuffer readWhole(Path path) throws ChaterpillarException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (IS_MAPPING_SAFE) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // reads until the buffer is full or the file ends
+            }
+            return buffer.flip();
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in opening the file.");
+        }
+    }
+
+    /**
+     * Checks if the file starts with the generation of the snapshot, which is not a task.
+     */
+    private static boolean hasGenerationLine(ByteBuffer buffer) {
+        String prefix = Storage.GENERATION_PREFIX;
+        if (buffer.limit() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buffer.get(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the position just after the next newline at or after <code>from</code>.
+     */
+    private static int findLineEnd(ByteBuffer buffer, int from) {
+        int limit = buffer.limit();
+        if (from >= limit) {
+            return limit;
+        }
+        for (int i = from - 1; i < limit; i++) {
+            if (i >= 0 && buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Parses the lines within one chunk of the mapped file.
+     */
+    private static class ChunkParser extends RecursiveTask<List<Task>> {
+        private static final long serialVersionUID = 1L;
+
+        private transient ByteBuffer chunk;
+        private ChaterpillarException error;
+
+        ChunkParser(ByteBuffer chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected List<Task> compute() {
+            String text = StandardCharsets.UTF_8.decode(chunk).toString();
+            chunk = null; // lets the mapped region go as soon as every chunk is decoded
+            List<Task> tasks = new ArrayList<>();
+            int start = 0;
+            while (start < text.length()) {
+                int end = text.indexOf('\n', start);
+                if (end < 0) {
+                    end = text.length();
+                }
+                String line = text.substring(start, end);
+                if (line.endsWith("\r")) {
+                    line = line.substring(0, line.length() - 1);
+                }
+                try {
+                    tasks.add(Parser.parseFromFile(line));
+                } catch (ChaterpillarException e) {
+                    error = e;
+                    return tasks;
+                }
+                start = end + 1;
+            }
+            return tasks;
+        }
+    }
+}
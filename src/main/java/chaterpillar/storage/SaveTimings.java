@@ -0,0 +1,69 @@
+package chaterpillar.storage;
+
+/**
+ * Time spent in each phase of the most recent save, in nanoseconds.
+ *
+ * @author marclamp
+ */
+public class SaveTimings {
+    private final String target;
+    private final FsyncPolicy policy;
+    private final long serialiseNanos;
+    private final long writeNanos;
+    private final long forceNanos;
+    private final long renameNanos;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param target what was saved, e.g. "snapshot" or "journal".
+     * @param policy fsync policy in effect during the save.
+     * @param serialiseNanos time spent turning the tasks into bytes.
+     * @param writeNanos time spent writing the bytes.
+     * @param forceNanos time spent forcing the bytes to disk.
+     * @param renameNanos time spent moving the temporary file over the original.
+     */
+    public SaveTimings(String target, FsyncPolicy policy, long serialiseNanos,
+                       long writeNanos, long forceNanos, long renameNanos) {
+        this.target = target;
+        this.policy = policy;
+        this.serialiseNanos = serialiseNanos;
+        this.writeNanos = writeNanos;
+        this.forceNanos = forceNanos;
+        this.renameNanos = renameNanos;
+    }
+
+    public long getSerialiseNanos() {
+        return serialiseNanos;
+    }
+
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    public long getForceNanos() {
+        return forceNanos;
+    }
+
+    public long getRenameNanos() {
+        return renameNanos;
+    }
+
+    public long getTotalNanos() {
+        return serialiseNanos + writeNanos + forceNanos + renameNanos;
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.2f ms", nanos / 1_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return "Last " + target + " save (fsync " + policy.name().toLowerCase().replace('_', '-') + "): "
+                + "serialise " + toMillis(serialiseNanos)
+                + ", write " + toMillis(writeNanos)
+                + ", force " + toMillis(forceNanos)
+                + ", rename " + toMillis(renameNanos)
+                + ", total " + toMillis(getTotalNanos());
+    }
+}
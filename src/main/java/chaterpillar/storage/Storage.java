@@ -3,12 +3,23 @@ package chaterpillar.storage;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import chaterpillar.exceptions.ChaterpillarException;
 import chaterpillar.parser.Parser;
@@ -17,12 +28,94 @@ import chaterpillar.tasks.TaskList;
 
 /**
  * Custom <code>Storage</code> for file reading/writing pero=sona.
+ * The history file holds a snapshot of the list, and every change made after
+ * that snapshot is appended as one record to the journal. Once the journal grows past
+ * <code>COMPACTION_THRESHOLD</code> written records, it is folded into a new
+ * snapshot the next time a command writes or syncs it, never by the background writer.
+ * When records reach the disk is controlled by the <code>DurabilityMode</code>,
+ * and when they are forced onto it by the <code>FsyncPolicy</code>. Snapshots
+ * are written to a temporary file that is then moved over the original, so a
+ * crash mid-save leaves the previous snapshot intact.
+ *
+ * <p>Each snapshot is numbered by a generation, which the journal written
+ * after it also starts with. A journal of another generation than the
+ * snapshot, such as one left by a crash between saving a snapshot and
+ * clearing the journal, is already part of the snapshot and is not replayed.
+ *
+ * <p>Records are replayed in the order they were appended, so a list changed
+ * by several threads is changed and recorded between
+ * <code>TaskList.beginEdit</code> and <code>endEdit</code>, as one step.
+ * During an edit, records and snapshots are only queued, along with an O(1)
+ * snapshot of the list for compaction, and <code>writeQueued</code> writes
+ * them once the edit has ended, so that the list is not locked while they are
+ * written. Writes to the files are serialised by this object's monitor.
  *
  * @author marclamp
  */
 public class Storage {
     public static final String CHATBOT_PATH_NAME = "./data";
     public static final String CHATBOT_FILE_NAME = "history.txt";
+    public static final String CHATBOT_JOURNAL_NAME = "history.journal.txt";
+    public static final int COMPACTION_THRESHOLD = 500;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    public static final int FSYNC_BATCH_SIZE = 16;
+
+    private static final String RECORD_ADD = "A";
+    private static final String RECORD_MARK = "M";
+    private static final String RECORD_UNMARK = "U";
+    private static final String RECORD_UPDATE = "C";
+    private static final String RECORD_DELETE = "X";
+    /** First line of the text snapshot and of the journal, naming the generation of the snapshot. */
+    static final String GENERATION_PREFIX = "G|";
+
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chaterpillar-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String pathName;
+    private final String fileName;
+    private final String journalName;
+    private int journalSize = 0;
+    private long generation = 0;
+    private StorageFormat format = StorageFormat.TEXT;
+    private DurabilityMode durabilityMode = DurabilityMode.IMMEDIATE;
+    private long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+    /** Guards what waits to be written, which is queued without waiting for any write. */
+    private final Object queueLock = new Object();
+    private final List<String> pendingRecords = new ArrayList<>();
+    /** Snapshot to be written before the pending records, or <code>null</code> if there is none. */
+    private List<Task> pendingSnapshot;
+    /** The list as of the last record or snapshot queued, which a compaction saves. */
+    private List<Task> journalledSnapshot;
+    private ScheduledFuture<?> scheduledFlush;
+    private ChaterpillarException backgroundError;
+    private Thread shutdownHook;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.BATCHED;
+    private int unforcedWrites = 0;
+    private SaveTimings lastSaveTimings;
+
+    /**
+     * Basic constructor, using <code>CHATBOT_FILE_NAME</code> and
+     * <code>CHATBOT_JOURNAL_NAME</code> in <code>CHATBOT_PATH_NAME</code>.
+     */
+    public Storage() {
+        this(CHATBOT_PATH_NAME, CHATBOT_FILE_NAME, CHATBOT_JOURNAL_NAME);
+    }
+
+    /**
+     * Overloaded constructor with the location of the files specified.
+     *
+     * @param pathName directory that holds the files.
+     * @param fileName name of the history file.
+     * @param journalName name of the journal.
+     */
+    public Storage(String pathName, String fileName, String journalName) {
+        this.pathName = pathName;
+        this.fileName = fileName;
+        this.journalName = journalName;
+    }
 
     /**
      * Gets the path of the file that stores the list of tasks.
@@ -34,14 +127,31 @@ public class Storage {
      *     to a path, or if the parent directory does not exist, or if an
      *     I/O error occurred.
      */
-    public static Path getHistoryFilePath() throws ChaterpillarException {
+    public Path getHistoryFilePath() throws ChaterpillarException {
+        return getDataFilePath(fileName);
+    }
+
+    /**
+     * Gets the path of the journal that stores the changes made since the
+     * last snapshot. Creates the directory and the file if they do not exist.
+     *
+     * @return <code>Path</code> of the journal
+     * @throws ChaterpillarException if the path string cannot be converted
+     *     to a path, or if the parent directory does not exist, or if an
+     *     I/O error occurred.
+     */
+    public Path getJournalFilePath() throws ChaterpillarException {
+        return getDataFilePath(journalName);
+    }
+
+    private Path getDataFilePath(String fileName) throws ChaterpillarException {
         try {
-            Path chatbotDataFilePath = Paths.get(CHATBOT_PATH_NAME);
+            Path chatbotDataFilePath = Paths.get(pathName);
             if (!Files.exists(chatbotDataFilePath)) {
-                Files.createDirectory(chatbotDataFilePath);
+                Files.createDirectories(chatbotDataFilePath);
             }
 
-            Path chatbotFilePath = chatbotDataFilePath.resolve(CHATBOT_FILE_NAME);
+            Path chatbotFilePath = chatbotDataFilePath.resolve(fileName);
             if (!Files.exists(chatbotFilePath)) {
                 Files.createFile(chatbotFilePath);
             }
@@ -54,7 +164,11 @@ public class Storage {
     }
 
     /**
-     * Loads the contents of the file and inputs it into the listOfTasks.
+     * Loads the contents of the file and inputs it into the listOfTasks,
+     * then replays the journal over it. Files larger than
+     * <code>MappedHistoryLoader.PARALLEL_LOAD_THRESHOLD</code> are
+     * memory-mapped and parsed in parallel. The format of the file is
+     * detected, and later saves are written in the same format.
      *
      * @return An <code>ArrayList</code> of <code>tasks.Task</code> objects.
      * @throws ChaterpillarException if there is an error opening the file,
@@ -62,36 +176,702 @@ public class Storage {
      */
     public TaskList loadFromFile() throws ChaterpillarException {
         Path path = getHistoryFilePath();
+        TaskList tasks;
+        if (BinaryTaskCodec.isBinary(path)) {
+            format = StorageFormat.BINARY;
+            generation = BinaryTaskCodec.readGeneration(path);
+            tasks = new TaskList(BinaryTaskCodec.read(path));
+        } else {
+            format = StorageFormat.TEXT;
+            generation = readTextGeneration(path);
+            tasks = new TaskList(isLargeFile(path)
+                    ? new MappedHistoryLoader().load(path)
+                    : loadLineByLine(path));
+        }
+        replayJournal(tasks);
+        tasks.clearHistory();
+        synchronized (queueLock) {
+            journalledSnapshot = tasks.snapshot();
+        }
+        return tasks;
+    }
+
+    private static boolean isLargeFile(Path path) throws ChaterpillarException {
+        try {
+            return MappedHistoryLoader.isWorthMapping(Files.size(path));
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in opening the file.");
+        }
+    }
+
+    private static ArrayList<Task> loadLineByLine(Path path) throws ChaterpillarException {
         ArrayList<Task> newList = new ArrayList<Task>();
         try (BufferedReader reader = Files.newBufferedReader(path)) {
-            String str;
-            while ((str = reader.readLine()) != null) {
+            String str = reader.readLine();
+            if (str != null && str.startsWith(GENERATION_PREFIX)) {
+                str = reader.readLine();
+            }
+            while (str != null) {
                 Task task = Parser.parseFromFile(str);
                 newList.add(task);
+                str = reader.readLine();
             }
         } catch (IOException e) {
             throw new ChaterpillarException("Error in opening the file.");
         }
-        return new TaskList(newList);
+        return newList;
+    }
+
+    /**
+     * Gets the generation of a snapshot in the text format, which is 0 for
+     * a snapshot saved before generations were kept.
+     */
+    private static long readTextGeneration(Path path) throws ChaterpillarException {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            return parseGeneration(reader.readLine());
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in opening the file.");
+        }
+    }
+
+    private static long parseGeneration(String line) throws ChaterpillarException {
+        if (line == null || !line.startsWith(GENERATION_PREFIX)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(line.substring(GENERATION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new ChaterpillarException("Error in formatting of this generation: \n" + line);
+        }
+    }
+
+    /**
+     * Applies every record in the journal, in order, to the list of tasks,
+     * unless the journal is older than the snapshot, in which case it is
+     * cleared instead.
+     *
+     * @param tasks list of tasks loaded from the last snapshot.
+     * @throws ChaterpillarException if the journal cannot be read or a record is malformed.
+     */
+    private void replayJournal(TaskList tasks) throws ChaterpillarException {
+        Path path = getJournalFilePath();
+        journalSize = 0;
+        boolean isStale;
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String str = reader.readLine();
+            long journalGeneration = parseGeneration(str);
+            if (str != null && str.startsWith(GENERATION_PREFIX)) {
+                str = reader.readLine();
+            }
+            isStale = journalGeneration != generation;
+            while (str != null && !isStale) {
+                applyJournalRecord(tasks, str);
+                journalSize++;
+                str = reader.readLine();
+            }
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in opening the journal.");
+        }
+        if (isStale) {
+            // the snapshot was saved but the journal was not cleared after it
+            clearJournal();
+        }
+    }
+
+    private void applyJournalRecord(TaskList tasks, String record) throws ChaterpillarException {
+        try {
+            String[] fields = record.split("\\|", 3);
+            switch (fields[0]) {
+            case RECORD_ADD:
+                tasks.addTask(Parser.parseFromFile(record.substring(2)));
+                break;
+            case RECORD_MARK:
+                tasks.setMarked(Integer.parseInt(fields[1]), true);
+                break;
+            case RECORD_UNMARK:
+                tasks.setMarked(Integer.parseInt(fields[1]), false);
+                break;
+            case RECORD_UPDATE:
+                int index = Integer.parseInt(fields[1]);
+                tasks.setTaskAtIndex(index, Parser.parseFromFile(fields[2]));
+                break;
+            case RECORD_DELETE:
+                tasks.deleteTaskAtIndex(Integer.parseInt(fields[1]));
+                break;
+            default:
+                throw new ChaterpillarException("Error in type of this journal record: \n" + record);
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            throw new ChaterpillarException("Error in formatting of this journal record: \n" + record);
+        }
+    }
+
+    /**
+     * Records that a task was added to the end of the list.
+     *
+     * @param tasks list of tasks after the change.
+     * @param task <code>Task</code> that was added.
+     * @throws ChaterpillarException if there are errors writing to the journal.
+     */
+    public void appendAdd(TaskList tasks, Task task) throws ChaterpillarException {
+        appendToJournal(tasks, RECORD_ADD + "|" + formatForSaving(task));
+    }
+
+    /**
+     * Records that the task at the specified index was marked.
+     *
+     * @param tasks list of tasks after the change.
+     * @param index index of the marked task, starting from 0.
+     * @throws ChaterpillarException if there are errors writing to the journal.
+     */
+    public void appendMark(TaskList tasks, int index) throws ChaterpillarException {
+        appendToJournal(tasks, RECORD_MARK + "|" + index);
+    }
+
+    /**
+     * Records that the task at the specified index was unmarked.
+     *
+     * @param tasks list of tasks after the change.
+     * @param index index of the unmarked task, starting from 0.
+     * @throws ChaterpillarException if there are errors writing to the journal.
+     */
+    public void appendUnmark(TaskList tasks, int index) throws ChaterpillarException {
+        appendToJournal(tasks, RECORD_UNMARK + "|" + index);
+    }
+
+    /**
+     * Records that the tasks at the specified indexes were marked or
+     * unmarked by one command, with a single write.
+     *
+     * @param tasks list of tasks after the change.
+     * @param indexes indexes of the changed tasks, starting from 0.
+     * @param isMarked whether the tasks were marked.
+     * @throws ChaterpillarException if there are errors writing to the journal.
+     */
+    public void appendMarks(TaskList tasks, int[] indexes, boolean isMarked) throws ChaterpillarException {
+        String[] records = new String[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            records[i] = (isMarked ? RECORD_MARK : RECORD_UNMARK) + "|" + indexes[i];
+        }
+        appendToJournal(tasks, records);
+    }
+
+    /**
+     * Records the new contents of the task at the specified index.
+     *
+     * @param tasks list of tasks after the change.
+     * @param index index of the updated task, starting from 0.
+     * @param task <code>Task</code> after the update.
+     * @throws ChaterpillarException if there are errors writing to the journal.
+     */
+    public void appendUpdate(TaskList tasks, int index, Task task) throws ChaterpillarException {
+        appendToJournal(tasks, RECORD_UPDATE + "|" + index + "|" + formatForSaving(task));
+    }
+
+    /**
+     * Records that the task at the specified index was deleted.
+     *
+     * @param tasks list of tasks after the change.
+     * @param index index of the deleted task, starting from 0.
+     * @throws ChaterpillarException if there are errors writing to the journal.
+     */
+    public void appendDelete(TaskList tasks, int index) throws ChaterpillarException {
+        appendToJournal(tasks, RECORD_DELETE + "|" + index);
+    }
+
+    /**
+     * Records that the tasks at the specified indexes were deleted by one
+     * command, with a single write. They are recorded from the last to the
+     * first, the order they were deleted in.
+     *
+     * @param tasks list of tasks after the change.
+     * @param indexes indexes of the deleted tasks before the change, in increasing order.
+     * @throws ChaterpillarException if there are errors writing to the journal.
+     */
+    public void appendDeletes(TaskList tasks, int[] indexes) throws ChaterpillarException {
+        String[] records = new String[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            records[i] = RECORD_DELETE + "|" + indexes[indexes.length - 1 - i];
+        }
+        appendToJournal(tasks, records);
+    }
+
+    /**
+     * Queues the records of one command for the journal, so that each command
+     * is saved by one write at most. Records queued during an edit of the list
+     * are written by <code>writeQueued</code> once it has ended, and others
+     * straight away.
+     *
+     * @param tasks list of tasks after the change, which a compaction saves.
+     * @param records records to be appended, in order.
+     * @throws ChaterpillarException if there are errors writing to the files.
+     */
+    private void appendToJournal(TaskList tasks, String... records) throws ChaterpillarException {
+        if (records.length == 0) {
+            return;
+        }
+        synchronized (queueLock) {
+            Collections.addAll(pendingRecords, records);
+            journalledSnapshot = tasks.snapshot();
+        }
+        if (!tasks.isEditing()) {
+            writeQueued();
+        }
+    }
+
+    /**
+     * Writes what was queued during an edit of the list, after the edit has
+     * ended. A snapshot is written straight away, and records according to the
+     * current <code>DurabilityMode</code>. The journal is compacted into a new
+     * snapshot instead once the records written to it pass
+     * <code>COMPACTION_THRESHOLD</code>. Records which are only queued, such
+     * as in <code>ON_EXIT</code> mode, do not count until they are written.
+     *
+     * @throws ChaterpillarException if there are errors writing to the files.
+     */
+    public synchronized void writeQueued() throws ChaterpillarException {
+        boolean hasSnapshot;
+        synchronized (queueLock) {
+            hasSnapshot = pendingSnapshot != null;
+        }
+        if (hasSnapshot) {
+            flush();
+            return;
+        }
+
+        switch (durabilityMode) {
+        case IMMEDIATE:
+            flushOrCompact();
+            break;
+        case BATCHED:
+            if (journalSize >= COMPACTION_THRESHOLD) {
+                flushOrCompact();
+            } else {
+                scheduleFlush();
+            }
+            break;
+        case ON_EXIT:
+            break;
+        default:
+            throw new AssertionError(durabilityMode);
+        }
     }
 
     /**
-     * Saves the entire list of Tasks into the file, by first clearing its contents.
+     * Writes every queued record to the journal, or folds the journal and
+     * them into a new snapshot if the journal would pass
+     * <code>COMPACTION_THRESHOLD</code> records.
+     *
+     * @throws ChaterpillarException if there are errors writing to the files.
+     */
+    private void flushOrCompact() throws ChaterpillarException {
+        synchronized (queueLock) {
+            if (journalledSnapshot != null && journalSize + pendingRecords.size() >= COMPACTION_THRESHOLD) {
+                pendingSnapshot = journalledSnapshot;
+                pendingRecords.clear();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Writes the queued snapshot, if any, and then every queued record to the
+     * journal in a single write. Whatever cannot be written is queued again.
+     *
+     * @throws ChaterpillarException if there are errors writing to the files.
+     */
+    private synchronized void flush() throws ChaterpillarException {
+        List<Task> snapshot;
+        List<String> records;
+        synchronized (queueLock) {
+            snapshot = pendingSnapshot;
+            records = new ArrayList<>(pendingRecords);
+            pendingSnapshot = null;
+            pendingRecords.clear();
+        }
+        try {
+            if (snapshot != null) {
+                writeSnapshot(snapshot);
+                snapshot = null;
+            }
+            writeRecords(records);
+        } catch (ChaterpillarException e) {
+            requeue(snapshot, records);
+            throw e;
+        }
+    }
+
+    /**
+     * Puts what could not be written back in front of what was queued since,
+     * unless a newer snapshot, which already holds all of it, was queued.
+     */
+    private void requeue(List<Task> snapshot, List<String> records) {
+        synchronized (queueLock) {
+            if (pendingSnapshot == null) {
+                pendingSnapshot = snapshot;
+                pendingRecords.addAll(0, records);
+            }
+        }
+    }
+
+    private void writeRecords(List<String> records) throws ChaterpillarException {
+        if (records.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        StringBuilder strBdr = new StringBuilder();
+        for (String record : records) {
+            strBdr.append(record).append("\n");
+        }
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(strBdr.toString());
+        long serialised = System.nanoTime();
+
+        Path path = getJournalFilePath();
+        long written;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            written = System.nanoTime();
+            forceIfDue(channel, false);
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in writing to the journal.");
+        }
+        long forced = System.nanoTime();
+
+        lastSaveTimings = new SaveTimings("journal", fsyncPolicy,
+                serialised - start, written - serialised, forced - written, 0);
+        journalSize += records.size();
+    }
+
+    /**
+     * Forces the written data onto the disk if the <code>FsyncPolicy</code> calls for it.
+     *
+     * Snapshots are forced by every policy except <code>NEVER</code>, since
+     * moving an unforced snapshot over the original could lose both.
+     *
+     * @param channel channel that was written to.
+     * @param isSnapshot whether a snapshot, rather than the journal, was written.
+     * @throws IOException if the data cannot be forced.
+     */
+    private void forceIfDue(FileChannel channel, boolean isSnapshot) throws IOException {
+        if (!isSnapshot) {
+            unforcedWrites++;
+        }
+        boolean isDue;
+        switch (fsyncPolicy) {
+        case NEVER:
+            isDue = false;
+            break;
+        case PER_SAVE:
+            isDue = true;
+            break;
+        case BATCHED:
+            isDue = isSnapshot || unforcedWrites >= FSYNC_BATCH_SIZE;
+            break;
+        default:
+            throw new AssertionError(fsyncPolicy);
+        }
+        if (isDue) {
+            channel.force(true);
+        }
+        if (isDue && !isSnapshot) {
+            unforcedWrites = 0;
+        }
+    }
+
+    /**
+     * Forces the journal onto the disk if earlier writes were left unforced by a
+     * <code>BATCHED</code> policy.
+     *
+     * @throws ChaterpillarException if the journal cannot be forced.
+     */
+    private void forceJournal() throws ChaterpillarException {
+        if (fsyncPolicy != FsyncPolicy.BATCHED || unforcedWrites == 0) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(getJournalFilePath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+            unforcedWrites = 0;
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in writing to the journal.");
+        }
+    }
+
+    /**
+     * Asks the background writer to flush the journal after the flush interval,
+     * unless a flush is already waiting. Changes made in the meantime are
+     * written together with it.
+     */
+    private void scheduleFlush() {
+        if (scheduledFlush == null || scheduledFlush.isDone()) {
+            scheduledFlush = WRITER.schedule(this::flushInBackground, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void flushInBackground() {
+        try {
+            flush();
+        } catch (ChaterpillarException e) {
+            backgroundError = e;
+        }
+    }
+
+    /**
+     * Writes every change that has not reached the journal yet, compacting
+     * the journal if it has grown past <code>COMPACTION_THRESHOLD</code> records.
+     *
+     * @throws ChaterpillarException if this or an earlier background write failed.
+     */
+    public synchronized void sync() throws ChaterpillarException {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        ChaterpillarException error = backgroundError;
+        backgroundError = null;
+        flushOrCompact();
+        forceJournal();
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Gets the number of changes that have not reached the journal yet.
+     *
+     * @return number of queued records.
+     */
+    public synchronized int getPendingCount() {
+        synchronized (queueLock) {
+            return pendingRecords.size();
+        }
+    }
+
+    /**
+     * Gets the current durability mode.
+     *
+     * @return current <code>DurabilityMode</code>.
+     */
+    public synchronized DurabilityMode getDurabilityMode() {
+        return this.durabilityMode;
+    }
+
+    /**
+     * Sets when changes are written to disk. Queued changes are written
+     * straight away when switching back to <code>IMMEDIATE</code>.
+     *
+     * @param mode the new <code>DurabilityMode</code>.
+     * @throws ChaterpillarException if there are errors writing queued changes.
+     */
+    public synchronized void setDurabilityMode(DurabilityMode mode) throws ChaterpillarException {
+        this.durabilityMode = mode;
+        if (mode == DurabilityMode.IMMEDIATE) {
+            sync();
+        } else if (shutdownHook == null) {
+            shutdownHook = new Thread(this::flushInBackground, "chaterpillar-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+    }
+
+    /**
+     * Writes every queued change and stops flushing on shutdown, for when this
+     * <code>Storage</code> is no longer used.
+     *
+     * @throws ChaterpillarException if there are errors writing queued changes.
+     */
+    public synchronized void close() throws ChaterpillarException {
+        sync();
+        if (shutdownHook != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // the JVM is already shutting down, and the hook will flush nothing
+            }
+            shutdownHook = null;
+        }
+    }
+
+    /**
+     * Gets the current fsync policy.
+     *
+     * @return current <code>FsyncPolicy</code>.
+     */
+    public synchronized FsyncPolicy getFsyncPolicy() {
+        return this.fsyncPolicy;
+    }
+
+    /**
+     * Sets when written data is forced onto the disk.
+     *
+     * @param policy the new <code>FsyncPolicy</code>.
+     */
+    public synchronized void setFsyncPolicy(FsyncPolicy policy) {
+        this.fsyncPolicy = policy;
+    }
+
+    /**
+     * Gets the time spent in each phase of the most recent save.
+     *
+     * @return <code>SaveTimings</code> of the last save, or <code>null</code> if nothing was saved yet.
+     */
+    public synchronized SaveTimings getLastSaveTimings() {
+        return this.lastSaveTimings;
+    }
+
+    /**
+     * Gets the longest time a change waits before being written in <code>BATCHED</code> mode.
+     *
+     * @return flush interval in milliseconds.
+     */
+    public synchronized long getFlushIntervalMillis() {
+        return this.flushIntervalMillis;
+    }
+
+    /**
+     * Sets the longest time a change waits before being written in <code>BATCHED</code> mode.
+     *
+     * @param millis flush interval in milliseconds.
+     */
+    public synchronized void setFlushIntervalMillis(long millis) {
+        assert millis > 0 : "Flush interval should be positive";
+        this.flushIntervalMillis = millis;
+    }
+
+    /**
+     * Gets the format that the snapshot is saved in.
+     *
+     * @return current <code>StorageFormat</code>.
+     */
+    public StorageFormat getFormat() {
+        return this.format;
+    }
+
+    /**
+     * Converts the snapshot to the specified format, folding the journal into it.
+     * Later saves are written in the new format.
+     *
+     * @param newFormat format to convert to.
+     * @param tasks the list of tasks.
+     * @throws ChaterpillarException if there are errors writing to the file.
+     */
+    public synchronized void convertTo(StorageFormat newFormat, TaskList tasks) throws ChaterpillarException {
+        this.format = newFormat;
+        saveAllToFile(tasks);
+    }
+
+    /**
+     * Saves the entire list of Tasks into the file. Records still queued are
+     * dropped, as the snapshot contains their changes. During an edit of the
+     * list, the snapshot is only queued for <code>writeQueued</code>.
      *
      * @throws ChaterpillarException if there are errors writing to the file.
      */
     public void saveAllToFile(TaskList tasks) throws ChaterpillarException {
+        synchronized (queueLock) {
+            pendingSnapshot = tasks.snapshot();
+            journalledSnapshot = pendingSnapshot;
+            pendingRecords.clear();
+        }
+        if (!tasks.isEditing()) {
+            writeQueued();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the list of Tasks into the file. The tasks are
+     * written to a temporary file next to it, which is forced according to the
+     * <code>FsyncPolicy</code> and then moved over the file in one step.
+     * The journal is cleared afterwards, as the snapshot now contains all of its changes,
+     * and starts again with the generation of the new snapshot.
+     *
+     * @throws ChaterpillarException if there are errors writing to the file.
+     */
+    private void writeSnapshot(List<Task> snapshot) throws ChaterpillarException {
         Path path = getHistoryFilePath();
-        try (BufferedWriter writer = Files.newBufferedWriter(path, Charset.defaultCharset())) {
-            writer.write(""); // clears the file
-            StringBuilder strBdr = new StringBuilder();
-            for (Task task : tasks.getTasks()) {
-                String str = task.formatStringForSaving();
-                strBdr.append(str).append("\n");
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+        long newGeneration = generation + 1;
+        long start = System.nanoTime();
+        ByteBuffer bytes = ByteBuffer.wrap(serialise(snapshot, newGeneration));
+        long serialised = System.nanoTime();
+
+        long written;
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
             }
-            writer.write(strBdr.toString());
+            written = System.nanoTime();
+            forceIfDue(channel, true);
         } catch (IOException e) {
             throw new ChaterpillarException("Error in writing to the file.");
         }
+        long forced = System.nanoTime();
+
+        try {
+            Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                throw new ChaterpillarException("Error in replacing the file with the saved copy.");
+            }
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in replacing the file with the saved copy.");
+        }
+        forceDirectory(path.getParent());
+        long renamed = System.nanoTime();
+
+        lastSaveTimings = new SaveTimings("snapshot", fsyncPolicy,
+                serialised - start, written - serialised, forced - written, renamed - forced);
+        generation = newGeneration;
+        clearJournal();
+    }
+
+    /**
+     * Forces the directory that a snapshot was moved into onto the disk, so
+     * that the move is not lost after the journal is cleared, unless the
+     * <code>FsyncPolicy</code> is <code>NEVER</code>.
+     */
+    private void forceDirectory(Path directory) {
+        if (fsyncPolicy == FsyncPolicy.NEVER) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // directories cannot be opened on some platforms, such as Windows, where the move is kept as it is
+        }
+    }
+
+    private byte[] serialise(List<Task> snapshot, long snapshotGeneration) {
+        if (format == StorageFormat.BINARY) {
+            return BinaryTaskCodec.encode(snapshot, snapshotGeneration);
+        }
+        StringBuilder strBdr = new StringBuilder(GENERATION_PREFIX).append(snapshotGeneration).append("\n");
+        for (Task task : snapshot) {
+            String str = formatForSaving(task);
+            strBdr.append(str).append("\n");
+        }
+        return strBdr.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Formats a task as one line of the text format, which starts with its id.
+     */
+    private static String formatForSaving(Task task) {
+        return task.getId() + "|" + task.formatStringForSaving();
+    }
+
+    private void clearJournal() throws ChaterpillarException {
+        Path path = getJournalFilePath();
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(GENERATION_PREFIX + generation + "\n"); // clears the file
+        } catch (IOException e) {
+            throw new ChaterpillarException("Error in writing to the journal.");
+        }
+        journalSize = 0;
+        unforcedWrites = 0;
     }
 }
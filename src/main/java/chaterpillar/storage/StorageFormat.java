@@ -0,0 +1,13 @@
+package chaterpillar.storage;
+
+/**
+ * Formats that the snapshot of the list of tasks can be saved in.
+ *
+ * @author marclamp
+ */
+public enum StorageFormat {
+    /** One pipe-delimited line per task, e.g. <code>D|false|name|3/Oct/2026</code>. */
+    TEXT,
+    /** Versioned binary records, see <code>BinaryTaskCodec</code>. */
+    BINARY
+}
@@ -0,0 +1,263 @@
+package chaterpillar.storage;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * Keeps track of one <code>Storage</code> and <code>TaskList</code> per user,
+ * so that many users can be served by one application. Each list is saved in
+ * its own files, named after the user's id, and is only loaded on first use.
+ * At most <code>capacity</code> lists are kept in memory; when another one is
+ * needed, the least recently used one is saved and dropped.
+ *
+ * <p>An entry is in use from <code>get</code> until it is given back with
+ * <code>release</code>, and is not dropped while in use, so that a second
+ * copy of the same list is never loaded while the first is being changed.
+ * An entry whose changes cannot be saved is kept too, and saved again the
+ * next time an entry is dropped. More than <code>capacity</code> lists may
+ * be in memory until then.
+ *
+ * <p>A list is loaded outside the lock of the registry, so that other users
+ * are served meanwhile. Its place is held by a future, which other callers
+ * for the same id wait on rather than loading a second copy.
+ *
+ * @author marclamp
+ */
+public class StorageRegistry {
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final String pathName;
+    private final int capacity;
+    private final LinkedHashMap<String, CompletableFuture<Entry>> resident;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Basic constructor, keeping the files in <code>Storage.CHATBOT_PATH_NAME</code>.
+     */
+    public StorageRegistry() {
+        this(Storage.CHATBOT_PATH_NAME, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Overloaded constructor with the directory and capacity specified.
+     *
+     * @param pathName directory that holds the files of every user.
+     * @param capacity most number of lists kept in memory at once.
+     */
+    public StorageRegistry(String pathName, int capacity) {
+        assert capacity > 0 : "Capacity should be positive";
+        this.pathName = pathName;
+        this.capacity = capacity;
+        this.resident = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets the storage and list of tasks of the specified user, loading them
+     * from their files if they are not in memory. The entry is in use until
+     * it is given back with <code>release</code>.
+     *
+     * @param id id of the user or list.
+     * @return <code>Entry</code> holding the storage and list of tasks.
+     * @throws ChaterpillarException if the id is invalid, or if there are errors
+     *     loading the list.
+     */
+    public Entry get(String id) throws ChaterpillarException {
+        while (true) {
+            CompletableFuture<Entry> loading;
+            boolean isLoader = false;
+            synchronized (this) {
+                loading = resident.get(id);
+                if (loading == null) {
+                    if (!VALID_ID.matcher(id).matches()) {
+                        throw new ChaterpillarException("Invalid id: " + id + "\n"
+                                                        + "Ids may only contain letters, digits, '-' and '_'.");
+                    }
+                    misses++;
+                    loading = new CompletableFuture<>();
+                    resident.put(id, loading);
+                    isLoader = true;
+                } else {
+                    hits++;
+                }
+            }
+            if (isLoader) {
+                return load(id, loading);
+            }
+            Entry entry = await(loading);
+            synchronized (this) {
+                if (resident.get(id) == loading) {
+                    entry.userCount++;
+                    return entry;
+                }
+            }
+            // dropped after it was loaded, before it could be used
+        }
+    }
+
+    /**
+     * Loads the list of the specified user, outside the lock of the registry,
+     * and completes the future holding its place with it.
+     */
+    private Entry load(String id, CompletableFuture<Entry> loading) throws ChaterpillarException {
+        Entry entry;
+        try {
+            Storage storage = new Storage(pathName, id + ".txt", id + ".journal.txt");
+            entry = new Entry(storage, storage.loadFromFile());
+        } catch (ChaterpillarException | RuntimeException e) {
+            synchronized (this) {
+                resident.remove(id, loading);
+            }
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            entry.userCount++;
+            loading.complete(entry);
+            evictIfFull();
+        }
+        return entry;
+    }
+
+    /**
+     * Waits for an entry being loaded by another caller.
+     *
+     * @throws ChaterpillarException if the entry could not be loaded.
+     */
+    private static Entry await(CompletableFuture<Entry> loading) throws ChaterpillarException {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ChaterpillarException) {
+                throw (ChaterpillarException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Gives back an entry from <code>get</code> once it is no longer used,
+     * such as after a command has been run on its list.
+     *
+     * @param entry <code>Entry</code> that is no longer used.
+     */
+    public synchronized void release(Entry entry) {
+        assert entry.userCount > 0 : "Entry should be in use";
+        entry.userCount--;
+        evictIfFull();
+    }
+
+    /**
+     * Saves and drops the least recently used entries which are not in use
+     * until no more than <code>capacity</code> are left, keeping those which
+     * cannot be saved. Entries still being loaded are in use by their loader.
+     */
+    private void evictIfFull() {
+        Iterator<Map.Entry<String, CompletableFuture<Entry>>> eldest = resident.entrySet().iterator();
+        while (resident.size() > capacity && eldest.hasNext()) {
+            Entry entry = eldest.next().getValue().getNow(null);
+            if (entry == null || entry.userCount > 0) {
+                continue;
+            }
+            try {
+                entry.getStorage().close();
+            } catch (ChaterpillarException e) {
+                // kept with its unsaved changes rather than failing the user who needed the room
+                continue;
+            }
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Saves every list in memory and drops them. Lists which cannot be
+     * saved, or are still being loaded, are kept.
+     *
+     * @throws ChaterpillarException if there are errors saving a list, after
+     *     trying to save all of the others.
+     */
+    public synchronized void closeAll() throws ChaterpillarException {
+        ChaterpillarException error = null;
+        Iterator<CompletableFuture<Entry>> entries = resident.values().iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next().getNow(null);
+            if (entry == null) {
+                continue;
+            }
+            try {
+                entry.getStorage().close();
+                entries.remove();
+            } catch (ChaterpillarException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    public synchronized int getResidentCount() {
+        return resident.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d/%d lists in memory, %d hits, %d misses, %d evictions",
+                resident.size(), capacity, hits, misses, evictions);
+    }
+
+    /**
+     * The storage and list of tasks of one user, and the <code>Ui</code>
+     * which keeps the next page of the last list shown to them.
+     */
+    public static class Entry {
+        private final Storage storage;
+        private final TaskList tasks;
+        private final Ui ui = new Ui();
+        /** Number of callers of <code>get</code> which have not released this entry, guarded by the registry. */
+        private int userCount;
+
+        Entry(Storage storage, TaskList tasks) {
+            this.storage = storage;
+            this.tasks = tasks;
+        }
+
+        public Storage getStorage() {
+            return storage;
+        }
+
+        public TaskList getTasks() {
+            return tasks;
+        }
+
+        public Ui getUi() {
+            return ui;
+        }
+    }
+}
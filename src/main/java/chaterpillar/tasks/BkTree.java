@@ -0,0 +1,202 @@
+package chaterpillar.tasks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Burkhard-Keller tree of words by their Levenshtein distance, used by
+ * <code>TokenIndex</code> to find the words within a few edits of a misspelt one
+ * without comparing it with every word.
+ *
+ * <p>Each child of a node is at a different distance from it, so by the triangle
+ * inequality only the children within the search distance of the distance to
+ * the node can hold matches. A removed word keeps its node, which the words
+ * below it are found through, but is no longer found itself. The tree is
+ * rebuilt from the words left once the removed ones outnumber them.
+ *
+ * @author marclamp
+ */
+class BkTree {
+    private Node root;
+    private int size;
+    private int removedCount;
+
+    /**
+     * Adds a word to the tree, if it is not already in it.
+     *
+     * @param word word to be added.
+     */
+    void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word, Integer.MAX_VALUE);
+            if (distance == 0) {
+                if (node.isRemoved) {
+                    node.isRemoved = false;
+                    removedCount--;
+                    size++;
+                }
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                node.maxChildDistance = Math.max(node.maxChildDistance, distance);
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Removes a word from the tree, if it is in it, so that it is no longer
+     * found. The tree is rebuilt once more words are removed than are left.
+     *
+     * @param word word to be removed.
+     */
+    void remove(String word) {
+        Node node = root;
+        while (node != null) {
+            int distance = distance(word, node.word, Integer.MAX_VALUE);
+            if (distance == 0) {
+                if (!node.isRemoved) {
+                    node.isRemoved = true;
+                    removedCount++;
+                    size--;
+                }
+                break;
+            }
+            node = node.children.get(distance);
+        }
+        if (removedCount > size) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Builds the tree again from the words which have not been removed,
+     * dropping the nodes of those which have.
+     */
+    private void rebuild() {
+        ArrayList<String> words = new ArrayList<>(size);
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        if (root != null) {
+            pending.push(root);
+        }
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            if (!node.isRemoved) {
+                words.add(node.word);
+            }
+            for (Node child : node.children.values()) {
+                pending.push(child);
+            }
+        }
+        root = null;
+        size = 0;
+        removedCount = 0;
+        for (String word : words) {
+            add(word);
+        }
+    }
+
+    /**
+     * Gives the number of words in the tree, not counting removed ones.
+     *
+     * @return number of words
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gives the number of nodes in the tree, including those of removed words
+     * which have not been dropped by a rebuild yet.
+     *
+     * @return number of nodes
+     */
+    int nodeCount() {
+        return size + removedCount;
+    }
+
+    /**
+     * Finds the words within a distance of a word.
+     *
+     * @param word word to be searched for.
+     * @param maxDistance largest number of edits allowed.
+     * @param action given each word found and its distance.
+     */
+    void forEachWithin(String word, int maxDistance, ObjIntConsumer<String> action) {
+        if (root == null) {
+            return;
+        }
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            // exact distances are only needed up to the furthest child worth visiting
+            int distance = distance(word, node.word, maxDistance + node.maxChildDistance);
+            if (distance <= maxDistance && !node.isRemoved) {
+                action.accept(node.word, distance);
+            }
+            for (int childDistance = Math.max(1, distance - maxDistance);
+                    childDistance <= distance + maxDistance && childDistance <= node.maxChildDistance;
+                    childDistance++) {
+                Node child = node.children.get(childDistance);
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the Levenshtein distance between two words, or any number greater
+     * than <code>limit</code> if it is greater than that.
+     */
+    static int distance(String first, String second, int limit) {
+        if (Math.abs(first.length() - second.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = previous[j - 1] + (first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+
+    private static class Node {
+        private final String word;
+        private final HashMap<Integer, Node> children = new HashMap<>();
+        private int maxChildDistance;
+        private boolean isRemoved;
+
+        Node(String word) {
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package chaterpillar.tasks;
+
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+/**
+ * Sorted index of <code>DeadlineTask</code> objects by the day they are due,
+ * used by <code>TaskList</code> to find deadlines on a day or within a range
+ * of days without visiting every task.
+ *
+ * <p>Deadlines due on the same day are kept in order of their sequence
+ * numbers, which is the order they are in the list of tasks.
+ *
+ * @author marclamp
+ */
+class DeadlineIndex {
+    private final TreeMap<Long, TreeMap<Long, DeadlineTask>> byDay = new TreeMap<>();
+    private int size;
+
+    /**
+     * Adds a deadline to the index.
+     *
+     * @param deadline deadline to be added, which must not be in the index already.
+     */
+    void add(DeadlineTask deadline) {
+        byDay.computeIfAbsent(deadline.getDateTime().toEpochDay(), day -> new TreeMap<>())
+                .put(deadline.getSequence(), deadline);
+        size++;
+    }
+
+    /**
+     * Removes a deadline from the index. Its date must not have changed since
+     * it was added.
+     *
+     * @param deadline deadline to be removed.
+     */
+    void remove(DeadlineTask deadline) {
+        long day = deadline.getDateTime().toEpochDay();
+        TreeMap<Long, DeadlineTask> onDay = byDay.get(day);
+        if (onDay != null && onDay.remove(deadline.getSequence()) != null) {
+            size--;
+            if (onDay.isEmpty()) {
+                byDay.remove(day);
+            }
+        }
+    }
+
+    /**
+     * Gives the number of deadlines in the index.
+     *
+     * @return number of deadlines
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the deadlines due on a day.
+     *
+     * @param day days since 1/Jan/1970.
+     * @return the deadlines, in the order they are in the list of tasks.
+     */
+    ArrayList<Task> findOnDay(long day) {
+        TreeMap<Long, DeadlineTask> onDay = byDay.get(day);
+        return onDay == null ? new ArrayList<>() : new ArrayList<>(onDay.values());
+    }
+
+    /**
+     * Finds the deadlines due within a range of days.
+     *
+     * @param fromDay first day of the range, in days since 1/Jan/1970.
+     * @param toDay last day of the range, in days since 1/Jan/1970.
+     * @return the deadlines, by the day they are due and then in the order
+     *     they are in the list of tasks.
+     */
+    ArrayList<Task> findBetween(long fromDay, long toDay) {
+        ArrayList<Task> found = new ArrayList<>();
+        if (fromDay > toDay) {
+            return found;
+        }
+        for (TreeMap<Long, DeadlineTask> onDay : byDay.subMap(fromDay, true, toDay, true).values()) {
+            found.addAll(onDay.values());
+        }
+        return found;
+    }
+}
@@ -39,8 +39,31 @@ public class DeadlineTask extends Task {
         this.setHasDate();
     }
 
+    /**
+     * Overloaded Constructor with an already parsed date/time
+     * and marked status
+     *
+     * @param taskname name of task to be tracked
+     * @param marked status of task (marked or unmarked)
+     * @param dateTime Date and/or Time of deadline
+     */
+    public DeadlineTask(String taskname, Boolean marked, DateTime dateTime) {
+        super(taskname, marked);
+        this.dateTime = dateTime;
+        this.setHasDate();
+    }
+
+    /**
+     * Gets the date and/or time of the deadline.
+     *
+     * @return <code>DateTime</code> of the deadline
+     */
+    public DateTime getDateTime() {
+        return this.dateTime;
+    }
+
     @Override
-    public void updateDate(String updatedDate) throws ChaterpillarException {
+    void updateDate(String updatedDate) throws ChaterpillarException {
         if (!updatedDate.isBlank()) {
             this.dateTime = new DateTime(updatedDate);
         }
@@ -0,0 +1,202 @@
+package chaterpillar.tasks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Interval tree of the day ranges of <code>EventTask</code> objects, used by
+ * <code>TaskList</code> to find the events on a day without visiting every task.
+ *
+ * <p>It is a treap ordered by start day and then by the sequence number of the
+ * task, where each node also keeps the latest end day in its subtree, so that
+ * subtrees which end before the day looked up are skipped.
+ *
+ * <p>An event that ends on an earlier day than it starts only falls on those
+ * two days, as in <code>DateTime.isWithinDate</code>, so it is stored as two
+ * one-day intervals instead.
+ *
+ * @author marclamp
+ */
+class EventIntervalTree {
+    private Node root;
+    private int size;
+
+    /**
+     * Adds an event to the tree.
+     *
+     * @param event event to be added, which must not be in the tree already.
+     */
+    void add(EventTask event) {
+        long start = event.getDateTimeFrom().toEpochDay();
+        long end = event.getDateTimeTo().toEpochDay();
+        if (start <= end) {
+            root = insert(root, new Node(start, end, event));
+        } else {
+            root = insert(root, new Node(start, start, event));
+            root = insert(root, new Node(end, end, event));
+        }
+        size++;
+    }
+
+    /**
+     * Removes an event from the tree. Its dates must not have changed since
+     * it was added.
+     *
+     * @param event event to be removed.
+     */
+    void remove(EventTask event) {
+        long start = event.getDateTimeFrom().toEpochDay();
+        long end = event.getDateTimeTo().toEpochDay();
+        root = delete(root, start, event.getSequence());
+        if (start > end) {
+            root = delete(root, end, event.getSequence());
+        }
+        size--;
+    }
+
+    /**
+     * Gives the number of events in the tree.
+     *
+     * @return number of events
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the events which fall on a day.
+     *
+     * @param day days since 1/Jan/1970.
+     * @return the events, in the order they were added to the list of tasks.
+     */
+    ArrayList<Task> findOnDay(long day) {
+        ArrayList<Task> found = new ArrayList<>();
+        collect(root, day, found);
+        found.sort(Comparator.comparingLong(Task::getSequence));
+        return found;
+    }
+
+    private static void collect(Node node, long day, ArrayList<Task> found) {
+        while (node != null && node.maxEnd >= day) {
+            collect(node.left, day, found);
+            if (node.start > day) {
+                return;
+            }
+            if (node.end >= day) {
+                found.add(node.event);
+            }
+            node = node.right;
+        }
+    }
+
+    private static int compare(long start, long sequence, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Long.compare(sequence, node.event.getSequence());
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.event.getSequence(), node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, long start, long sequence) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, sequence, node);
+        if (comparison < 0) {
+            node.left = delete(node.left, start, sequence);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, start, sequence);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            right.update();
+            return right;
+        }
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static class Node {
+        private final long start;
+        private final long end;
+        private final EventTask event;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long start, long end, EventTask event) {
+            this.start = start;
+            this.end = end;
+            this.event = event;
+            this.priority = mix(event.getSequence() * 31 + start);
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd > maxEnd) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > maxEnd) {
+                maxEnd = right.maxEnd;
+            }
+        }
+
+        private static int mix(long value) {
+            long z = value + 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return (int) (z ^ (z >>> 31));
+        }
+    }
+}
@@ -48,15 +48,49 @@ public class EventTask extends Task {
         this.setHasDate();
     }
 
+    /**
+     * Overloaded Constructor with already parsed event start and end
+     * date and/or time
+     *
+     * @param taskname name of task to be tracked
+     * @param isMarked <code>Boolean</code>
+     * @param dateTimeFrom start date and/or time of the event
+     * @param dateTimeTo end date and/or time of the event
+     */
+    public EventTask(String taskname, Boolean isMarked, DateTime dateTimeFrom, DateTime dateTimeTo) {
+        super(taskname, isMarked);
+        this.dateTimeFrom = dateTimeFrom;
+        this.dateTimeTo = dateTimeTo;
+        this.setHasDate();
+    }
+
+    /**
+     * Gets the start date and/or time of the event.
+     *
+     * @return <code>DateTime</code> of the start of the event
+     */
+    public DateTime getDateTimeFrom() {
+        return this.dateTimeFrom;
+    }
+
+    /**
+     * Gets the end date and/or time of the event.
+     *
+     * @return <code>DateTime</code> of the end of the event
+     */
+    public DateTime getDateTimeTo() {
+        return this.dateTimeTo;
+    }
+
     @Override
-    public void updateStartDate(String updatedStartDate) throws ChaterpillarException {
+    void updateStartDate(String updatedStartDate) throws ChaterpillarException {
         if (!updatedStartDate.isBlank()) {
             this.dateTimeFrom = new DateTime(updatedStartDate);
         }
     }
 
     @Override
-    public void updateEndDate(String updatedEndDate) throws ChaterpillarException {
+    void updateEndDate(String updatedEndDate) throws ChaterpillarException {
         if (!updatedEndDate.isBlank()) {
             this.dateTimeTo = new DateTime(updatedEndDate);
         }
@@ -0,0 +1,43 @@
+package chaterpillar.tasks;
+
+/**
+ * A task found by a fuzzy search, together with how far its name is
+ * from the words searched for.
+ *
+ * @author marclamp
+ */
+public class FuzzyMatch {
+    private final Task task;
+    private final int distance;
+
+    /**
+     * Constructor for this class.
+     *
+     * @param task the task found.
+     * @param distance total number of edits between the words searched for
+     *     and the closest words in the name of the task.
+     */
+    public FuzzyMatch(Task task, int distance) {
+        this.task = task;
+        this.distance = distance;
+    }
+
+    /**
+     * Gets the task found.
+     *
+     * @return <code>Task</code> found.
+     */
+    public Task getTask() {
+        return this.task;
+    }
+
+    /**
+     * Gets the number of edits between the words searched for and the
+     * closest words in the name of the task.
+     *
+     * @return number of edits, where 0 is an exact match.
+     */
+    public int getDistance() {
+        return this.distance;
+    }
+}
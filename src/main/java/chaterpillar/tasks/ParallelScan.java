@@ -0,0 +1,158 @@
+package chaterpillar.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Settings for the queries which have to check every task, and the
+ * <code>ForkJoinPool</code> that splits them across threads once the list
+ * is large enough to pay for it. The tasks found are in the same order
+ * whether the list was checked in parallel or not.
+ *
+ * <p>The default settings are read from the system properties
+ * <code>chaterpillar.parallel.threshold</code>, the smallest number of tasks
+ * checked in parallel, and <code>chaterpillar.parallel.poolSize</code>, the
+ * number of threads, which defaults to the number of processors.
+ *
+ * @author marclamp
+ */
+public class ParallelScan {
+    public static final String THRESHOLD_PROPERTY = "chaterpillar.parallel.threshold";
+    public static final String POOL_SIZE_PROPERTY = "chaterpillar.parallel.poolSize";
+    public static final int DEFAULT_THRESHOLD = 100_000;
+
+    /** Each thread is given a few chunks, so that a slow chunk does not leave the others idle. */
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MIN_CHUNK_SIZE = 4096;
+
+    private static ParallelScan defaultScan;
+
+    private final int threshold;
+    private final int poolSize;
+    private ForkJoinPool pool;
+
+    /**
+     * Checks a range of positions, adding what is found in order.
+     *
+     * @param <T> type of what is found.
+     */
+    @FunctionalInterface
+    public interface RangeScanner<T> {
+        /**
+         * Checks the positions from <code>from</code> (inclusive) to <code>to</code> (exclusive).
+         *
+         * @param from first position to be checked.
+         * @param to position after the last to be checked.
+         * @param found list to add what is found to.
+         */
+        void scan(int from, int to, List<T> found);
+    }
+
+    /**
+     * Constructor for this class.
+     *
+     * @param threshold smallest number of tasks which are checked in parallel.
+     * @param poolSize number of threads; 1 checks every list on the calling thread.
+     */
+    public ParallelScan(int threshold, int poolSize) {
+        if (threshold < 0 || poolSize < 1) {
+            throw new IllegalArgumentException("Threshold must not be negative and pool size must be positive.");
+        }
+        this.threshold = threshold;
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Gets the settings read from the system properties, shared by every
+     * list which is not given its own.
+     *
+     * @return <code>ParallelScan</code> object with the default settings.
+     */
+    public static synchronized ParallelScan getDefault() {
+        if (defaultScan == null) {
+            defaultScan = new ParallelScan(Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD),
+                    Integer.getInteger(POOL_SIZE_PROPERTY, Runtime.getRuntime().availableProcessors()));
+        }
+        return defaultScan;
+    }
+
+    /**
+     * Gets the smallest number of tasks which are checked in parallel.
+     *
+     * @return threshold for checking in parallel.
+     */
+    public int getThreshold() {
+        return this.threshold;
+    }
+
+    /**
+     * Gets the number of threads the tasks are checked with.
+     *
+     * @return size of the pool of threads.
+     */
+    public int getPoolSize() {
+        return this.poolSize;
+    }
+
+    /**
+     * Checks every position up to <code>size</code>, in parallel if there
+     * are at least as many as the threshold.
+     *
+     * @param size number of positions to be checked.
+     * @param scanner checks a range of positions.
+     * @param <T> type of what is found.
+     * @return everything found, in order of position.
+     */
+    public <T> ArrayList<T> collect(int size, RangeScanner<T> scanner) {
+        if (size < threshold || poolSize == 1) {
+            ArrayList<T> found = new ArrayList<>();
+            scanner.scan(0, size, found);
+            return found;
+        }
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, size / (poolSize * CHUNKS_PER_THREAD));
+        return getPool().invoke(new Chunk<>(scanner, 0, size, chunkSize));
+    }
+
+    private synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(poolSize);
+        }
+        return pool;
+    }
+
+    /**
+     * Range of positions which is split in half until it is small enough to be checked.
+     */
+    private static class Chunk<T> extends RecursiveTask<ArrayList<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient RangeScanner<T> scanner;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        Chunk(RangeScanner<T> scanner, int from, int to, int chunkSize) {
+            this.scanner = scanner;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected ArrayList<T> compute() {
+            if (to - from <= chunkSize) {
+                ArrayList<T> found = new ArrayList<>();
+                scanner.scan(from, to, found);
+                return found;
+            }
+            int middle = (from + to) >>> 1;
+            Chunk<T> second = new Chunk<>(scanner, middle, to, chunkSize);
+            second.fork();
+            ArrayList<T> found = new Chunk<>(scanner, from, middle, chunkSize).compute();
+            found.addAll(second.join());
+            return found;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package chaterpillar.tasks;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import chaterpillar.datetime.DateTime;
 import chaterpillar.exceptions.ChaterpillarException;
 
@@ -8,9 +10,16 @@ import chaterpillar.exceptions.ChaterpillarException;
  * description or name, represented by a String, and a boolean
  * indicating whether the task is marked.
  *
+ * <p>A task in a <code>TaskList</code> is never changed in place, so the
+ * methods which change a task are only used by the list, on a copy.
+ *
  * @author marclamp
  */
-public class Task {
+public class Task implements Cloneable {
+    private static final AtomicLong NEXT_SEQUENCE = new AtomicLong();
+
+    private long sequence = NEXT_SEQUENCE.getAndIncrement();
+    private long id;
     private boolean isMarked;
     private String taskName;
     private boolean hasDate;
@@ -42,7 +51,7 @@ public class Task {
      * Sets this task as marked, by setting the
      * boolean flag to be true.
      */
-    public void mark() {
+    void mark() {
         this.isMarked = true;
     }
 
@@ -50,15 +59,111 @@ public class Task {
      * Sets this task as unmarked, by setting the
      * boolean flag to be false.
      */
-    public void unmark() {
+    void unmark() {
         this.isMarked = false;
     }
 
+    /**
+     * Gets the name of this task.
+     *
+     * @return name of the task.
+     */
+    public String getTaskName() {
+        return this.taskName;
+    }
+
+    /**
+     * Gets the marked status of this task.
+     *
+     * @return <code>true</code> if the task is marked.
+     */
+    public boolean isMarked() {
+        return this.isMarked;
+    }
+
+    /**
+     * Gets the id of this task, which stays the same when other tasks
+     * are added or deleted, and is saved with the task.
+     *
+     * @return id of the task, or 0 if it has not been added to a list yet.
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Gets a task like this one with the specified id, such as when it is
+     * loaded from file, leaving this task as it is.
+     * <code>TaskList</code> gives an id to every task added without one.
+     *
+     * @param id id of the task, which is positive, or 0 for none.
+     * @return this task if it already has the id, or a copy of it with the id.
+     */
+    public Task withId(long id) {
+        if (id == this.id) {
+            return this;
+        }
+        Task task = copy();
+        task.id = id;
+        return task;
+    }
+
+    /**
+     * Sets the id of this task, as it is added to a list.
+     *
+     * @param id id of the task, which is positive.
+     */
+    void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the sequence number of this task. Within a <code>TaskList</code>,
+     * tasks are always in the order of their sequence numbers.
+     *
+     * @return sequence number of the task.
+     */
+    long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Sets the sequence number of this task.
+     *
+     * @param sequence sequence number of the task.
+     */
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Gives a sequence number greater than that of every existing task.
+     *
+     * @return new sequence number.
+     */
+    static long nextSequence() {
+        return NEXT_SEQUENCE.getAndIncrement();
+    }
+
+    /**
+     * Makes a copy of this task, with the same id and sequence number, which
+     * can be changed without changing this task.
+     *
+     * @return copy of this task.
+     */
+    public Task copy() {
+        try {
+            return (Task) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Task is Cloneable", e);
+        }
+    }
+
     /**
      * Sets this task to have date, by setting the
      * boolean flag to be true.
      */
-    public void setHasDate() {
+    void setHasDate() {
         this.hasDate = true;
     }
 
@@ -74,7 +179,7 @@ public class Task {
      *
      * @param updatedName the new name
      */
-    public void updateName(String updatedName) {
+    void updateName(String updatedName) {
         if (!updatedName.isBlank()) {
             this.taskName = updatedName;
         }
@@ -86,7 +191,7 @@ public class Task {
      * @param updatedDate the new date
      * @throws ChaterpillarException if the task does not have a date to be updated
      */
-    public void updateDate(String updatedDate) throws ChaterpillarException {
+    void updateDate(String updatedDate) throws ChaterpillarException {
         if (!updatedDate.isBlank()) {
             throw new ChaterpillarException("This task type does not contain a date.");
         }
@@ -98,7 +203,7 @@ public class Task {
      * @param updatedStartDate the new start date
      * @throws ChaterpillarException if the task does not have a date to be updated
      */
-    public void updateStartDate(String updatedStartDate) throws ChaterpillarException {
+    void updateStartDate(String updatedStartDate) throws ChaterpillarException {
         if (!updatedStartDate.isBlank()) {
             throw new ChaterpillarException("This task type does not contain a start or end date.");
         }
@@ -110,7 +215,7 @@ public class Task {
      * @param updatedEndDate the new end date
      * @throws ChaterpillarException if the task does not have a date to be updated
      */
-    public void updateEndDate(String updatedEndDate) throws ChaterpillarException {
+    void updateEndDate(String updatedEndDate) throws ChaterpillarException {
         if (!updatedEndDate.isBlank()) {
             throw new ChaterpillarException("This task type does not contain a start or end date.");
         }
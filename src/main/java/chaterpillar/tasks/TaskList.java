@@ -1,16 +1,112 @@
 package chaterpillar.tasks;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 
 import chaterpillar.datetime.DateTime;
+import chaterpillar.exceptions.ChaterpillarException;
 
 /**
  * Custom wrapper class for list of tasks in this application.
  *
+ * <p>The indexes used to answer queries by date, name and id are only built
+ * on the first query, so that lists which are never queried, such as the
+ * results of another query, do not pay for them, and are kept current from
+ * then on. Queries return a <code>TaskListView</code> of the positions of
+ * the tasks found, rather than a copy of them.
+ *
+ * <p>A list may be read by many threads at once while one thread changes it.
+ * Changes take the write lock of a <code>ReentrantReadWriteLock</code> and
+ * queries take its read lock. A command holds the write lock from
+ * <code>beginEdit</code> to <code>endEdit</code>, so that its changes and
+ * the records it saves of them are not interleaved with those of another
+ * thread. Tasks in a list are never changed in place: a
+ * change replaces the task with a changed copy, and the tasks are kept in a
+ * persistent <code>TaskTree</code>, so getting a task, the size or a
+ * <code>snapshot</code> of the list needs no lock at all.
+ *
+ * <p>The same sharing gives each version of the list in O(log n) memory, so
+ * the changes made between <code>beginEdit</code> and <code>endEdit</code>,
+ * or by a single call outside them, can be undone and redone. Only the last
+ * <code>DEFAULT_HISTORY_DEPTH</code> edits are kept, unless set otherwise.
+ *
  * @author marclamp
  */
 public class TaskList {
-    private final ArrayList<Task> tasks;
+    public static final int DEFAULT_HISTORY_DEPTH = 100;
+
+    /** Substring search scans instead if more than this fraction of the tasks would have to be checked. */
+    private static final int MAX_CANDIDATE_FRACTION = 16;
+
+    private final TaskTree tasks;
+    private final EventIntervalTree eventIndex = new EventIntervalTree();
+    private final DeadlineIndex deadlineIndex = new DeadlineIndex();
+    private final TokenIndex tokenIndex = new TokenIndex();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final HashMap<Long, Task> byId = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ArrayDeque<Edit> undoHistory = new ArrayDeque<>();
+    private final ArrayDeque<Edit> redoHistory = new ArrayDeque<>();
+    private Edit openEdit;
+    private int editDepth;
+    private int historyDepth = DEFAULT_HISTORY_DEPTH;
+    private long nextId = 1;
+    private long changeCount;
+    private boolean isIndexed;
+    private volatile ParallelScan parallelScan = ParallelScan.getDefault();
+
+    /**
+     * Change made to a copy of a task, which may fail.
+     */
+    @FunctionalInterface
+    private interface TaskChange<E extends Exception> {
+        void apply(Task task) throws E;
+    }
+
+    /**
+     * Changes which are undone together: the list as it was before them, and
+     * the tasks they took out of and put into the list.
+     */
+    private static class Edit {
+        private final TaskTree before;
+        private final Set<Task> removed;
+        private final Set<Task> added;
+
+        Edit(TaskTree before) {
+            // by identity, so that a task the same edit put in and takes out again is found in O(1)
+            this(before, Collections.newSetFromMap(new IdentityHashMap<>()),
+                    Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+
+        Edit(TaskTree before, Set<Task> removed, Set<Task> added) {
+            this.before = before;
+            this.removed = removed;
+            this.added = added;
+        }
+
+        void record(Task removedTask, Task addedTask) {
+            // a task put in and taken out by the same edit was never in the list before it
+            if (removedTask != null && !added.remove(removedTask)) {
+                removed.add(removedTask);
+            }
+            if (addedTask != null) {
+                added.add(addedTask);
+            }
+        }
+
+        boolean isEmpty() {
+            return removed.isEmpty() && added.isEmpty();
+        }
+    }
 
     /**
      * Basic constructor that creates a new empty
@@ -18,18 +114,33 @@ public class TaskList {
      * <code>TaskList</code> object.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this.tasks = new TaskTree();
     }
 
     /**
      * Overloaded constructor that creates a new
      * <code>TaskList</code> object filled with
-     * the list of tasks provided.
+     * the list of tasks provided. Tasks which are not in
+     * order of their sequence numbers are given new ones, and
+     * tasks without an id are given one.
      *
      * @param tasks list of tasks
      */
     public TaskList(ArrayList<Task> tasks) {
-        this.tasks = tasks;
+        this.tasks = new TaskTree(tasks);
+        long lastSequence = Long.MIN_VALUE;
+        for (Task task : tasks) {
+            if (task.getSequence() <= lastSequence) {
+                task.setSequence(Task.nextSequence());
+            }
+            lastSequence = task.getSequence();
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+        for (Task task : tasks) {
+            if (task.getId() == 0) {
+                task.setId(nextId++);
+            }
+        }
     }
 
     /**
@@ -43,12 +154,45 @@ public class TaskList {
     }
 
     /**
-     * Gets the entire list of tasks
+     * Gets the entire list of tasks, as a snapshot.
+     *
+     * @return <code>List</code> of <code>Task</code>
+     * @see #snapshot()
+     */
+    public List<Task> getTasks() {
+        return snapshot();
+    }
+
+    /**
+     * Gets a read-only snapshot of the list of tasks, in O(1) and without
+     * waiting for any writer, which stays the same however the list changes
+     * afterwards.
      *
-     * @return <code>ArrayList</code> of <code>Task</code>
+     * @return <code>List</code> of <code>Task</code>
      */
-    public ArrayList<Task> getTasks() {
-        return this.tasks;
+    public List<Task> snapshot() {
+        return Collections.unmodifiableList(this.tasks.snapshot());
+    }
+
+    /**
+     * Gets a view of every task in the list.
+     *
+     * @return <code>TaskListView</code> of the whole list.
+     */
+    public TaskListView viewAll() {
+        return TaskListView.ofAll(this);
+    }
+
+    /**
+     * Gets a view of the tasks which match a predicate, which is checked
+     * against every task, in parallel if the list is large enough, the first
+     * time the view is read.
+     *
+     * @param predicate condition for a task to be in the view.
+     * @return <code>TaskListView</code> of the matching tasks, in order.
+     */
+    public TaskListView filter(Predicate<Task> predicate) {
+        return TaskListView.ofMatching(this, predicate);
     }
 
     /**
@@ -66,8 +210,124 @@ public class TaskList {
      * @param task <code>Task</code> to be added
      */
     public void addTask(Task task) {
-        this.tasks.add(task);
-        assert !this.tasks.isEmpty() : "ArrayList<Task> should not be empty after add function";
+        lock.writeLock().lock();
+        try {
+            if (!tasks.isEmpty() && task.getSequence() <= tasks.get(tasks.size() - 1).getSequence()) {
+                task.setSequence(Task.nextSequence());
+            }
+            if (task.getId() == 0) {
+                task.setId(nextId++);
+            } else {
+                nextId = Math.max(nextId, task.getId() + 1);
+            }
+            TaskTree before = this.tasks.snapshot();
+            this.tasks.add(task);
+            index(task);
+            record(before, null, task);
+            assert !this.tasks.isEmpty() : "ArrayList<Task> should not be empty after add function";
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the <code>Task</code> at the specified index.
+     *
+     * @param index specified index to be replaced
+     * @param task the new <code>Task</code>
+     * @return the <code>Task</code> that was replaced.
+     */
+    public Task setTaskAtIndex(int index, Task task) {
+        lock.writeLock().lock();
+        try {
+            Task replaced = this.tasks.get(index);
+            unindex(replaced);
+            task.setSequence(replaced.getSequence());
+            if (task.getId() == 0) {
+                task.setId(replaced.getId());
+            }
+            TaskTree before = this.tasks.snapshot();
+            this.tasks.set(index, task);
+            index(task);
+            record(before, replaced, task);
+            return replaced;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks or unmarks the <code>Task</code> at the specified index.
+     *
+     * @param index specified index to be marked or unmarked
+     * @param isMarked whether the task should be marked
+     * @return the <code>Task</code> as it now is.
+     */
+    public Task setMarked(int index, boolean isMarked) {
+        return replaceWithCopy(index, task -> {
+            if (isMarked) {
+                task.mark();
+            } else {
+                task.unmark();
+            }
+        });
+    }
+
+    /**
+     * Marks or unmarks the tasks at the specified indexes as one edit,
+     * leaving those which already are as they were.
+     *
+     * @param indexes specified indexes, in increasing order.
+     * @param isMarked whether the tasks should be marked.
+     * @return the indexes of the tasks which were changed, in increasing order.
+     */
+    public int[] setMarked(int[] indexes, boolean isMarked) {
+        lock.writeLock().lock();
+        try {
+            boolean isOwnEdit = beginOwnEdit();
+            int[] changed = new int[indexes.length];
+            int changedCount = 0;
+            try {
+                for (int index : indexes) {
+                    if (this.tasks.get(index).isMarked() != isMarked) {
+                        setMarked(index, isMarked);
+                        changed[changedCount++] = index;
+                    }
+                }
+            } finally {
+                endOwnEdit(isOwnEdit);
+            }
+            return Arrays.copyOf(changed, changedCount);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes the tasks at the specified indexes as one edit, from the last
+     * to the first so that the indexes still to be deleted do not move,
+     * in O(k log n) for k tasks.
+     *
+     * @param indexes specified indexes, in increasing order.
+     * @return the tasks that were deleted, in the order they were in the list.
+     */
+    public ArrayList<Task> deleteTasksAtIndexes(int[] indexes) {
+        lock.writeLock().lock();
+        try {
+            boolean isOwnEdit = beginOwnEdit();
+            Task[] deleted = new Task[indexes.length];
+            try {
+                for (int i = indexes.length - 1; i >= 0; i--) {
+                    assert i == 0 || indexes[i - 1] < indexes[i] : "Indexes should be in increasing order";
+                    deleted[i] = deleteTaskAtIndex(indexes[i]);
+                }
+            } finally {
+                endOwnEdit(isOwnEdit);
+            }
+            return new ArrayList<>(Arrays.asList(deleted));
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -77,7 +337,443 @@ public class TaskList {
      * @return the <code>Task</code> that was deleted.
      */
     public Task deleteTaskAtIndex(int index) {
-        return this.tasks.remove(index);
+        lock.writeLock().lock();
+        try {
+            TaskTree before = this.tasks.snapshot();
+            Task deleted = this.tasks.remove(index);
+            unindex(deleted);
+            record(before, deleted, null);
+            return deleted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the position of the task with the specified id, in O(1) to find
+     * the task and O(log n) to find its position.
+     *
+     * @param id id of the task.
+     * @return index of the task, or -1 if there is no task with that id.
+     */
+    public int getIndexOfId(long id) {
+        readLockIndexed();
+        try {
+            Task task = byId.get(id);
+            return task == null ? -1 : tasks.indexOfSequence(task.getSequence());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the name of the <code>Task</code> at the specified index,
+     * keeping the word index current.
+     *
+     * @param index specified index to be updated
+     * @param updatedName the new name, or blank to keep the name
+     */
+    public void updateName(int index, String updatedName) {
+        replaceWithCopy(index, task -> task.updateName(updatedName));
+    }
+
+    /**
+     * Updates the name and dates of the <code>Task</code> at the specified
+     * index as one change, keeping the indexes current. Either every detail
+     * is changed, or the task is left as it was if any of them cannot be.
+     *
+     * @param index specified index to be updated
+     * @param updatedName the new name, or blank to keep the name
+     * @param updatedDate the new date, or blank to keep the date
+     * @param updatedStartDate the new start date, or blank to keep the date
+     * @param updatedEndDate the new end date, or blank to keep the date
+     * @return the <code>Task</code> as it now is.
+     * @throws ChaterpillarException if the task does not have one of the dates
+     *     to be changed, or a date is in an invalid format.
+     */
+    public Task updateTask(int index, String updatedName, String updatedDate, String updatedStartDate,
+                           String updatedEndDate) throws ChaterpillarException {
+        return replaceWithCopy(index, task -> {
+            task.updateName(updatedName);
+            task.updateDate(updatedDate);
+            task.updateStartDate(updatedStartDate);
+            task.updateEndDate(updatedEndDate);
+        });
+    }
+
+    /**
+     * Updates the date of the <code>Task</code> at the specified index,
+     * keeping the date indexes current.
+     *
+     * @param index specified index to be updated
+     * @param updatedDate the new date, or blank to keep the date
+     * @throws ChaterpillarException if the task does not have a date or
+     *     the date is in an invalid format.
+     */
+    public void updateDate(int index, String updatedDate) throws ChaterpillarException {
+        replaceWithCopy(index, task -> task.updateDate(updatedDate));
+    }
+
+    /**
+     * Updates the start date of the <code>Task</code> at the specified index,
+     * keeping the date indexes current.
+     *
+     * @param index specified index to be updated
+     * @param updatedStartDate the new start date, or blank to keep the date
+     * @throws ChaterpillarException if the task does not have a start date or
+     *     the date is in an invalid format.
+     */
+    public void updateStartDate(int index, String updatedStartDate) throws ChaterpillarException {
+        replaceWithCopy(index, task -> task.updateStartDate(updatedStartDate));
+    }
+
+    /**
+     * Updates the end date of the <code>Task</code> at the specified index,
+     * keeping the date indexes current.
+     *
+     * @param index specified index to be updated
+     * @param updatedEndDate the new end date, or blank to keep the date
+     * @throws ChaterpillarException if the task does not have an end date or
+     *     the date is in an invalid format.
+     */
+    public void updateEndDate(int index, String updatedEndDate) throws ChaterpillarException {
+        replaceWithCopy(index, task -> task.updateEndDate(updatedEndDate));
+    }
+
+    /**
+     * Starts an edit, so that every change until <code>endEdit</code>, such
+     * as those made by one command, is undone and redone together. The write
+     * lock is held until then, so that no other thread changes the list
+     * between the changes of the edit and the saving of them. Edits may be
+     * nested, and only the outermost one is kept in the history.
+     */
+    public void beginEdit() {
+        lock.writeLock().lock();
+        if (editDepth++ == 0) {
+            openEdit = new Edit(this.tasks.snapshot());
+        }
+    }
+
+    /**
+     * Ends the edit started by <code>beginEdit</code>, keeping it in the
+     * history if anything was changed, and releases the write lock.
+     */
+    public void endEdit() {
+        assert lock.isWriteLockedByCurrentThread() : "Edit should have been begun by this thread";
+        try {
+            if (--editDepth == 0) {
+                closeOpenEdit();
+                openEdit = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns whether the current thread is within an edit, whose changes are
+     * saved once it has ended.
+     *
+     * @return <code>true</code> if <code>beginEdit</code> was called by this thread without its <code>endEdit</code>.
+     */
+    public boolean isEditing() {
+        return lock.isWriteLockedByCurrentThread() && editDepth > 0;
+    }
+
+    /**
+     * Undoes the last edit, in O(1) for the list and O(k log n) to keep the
+     * indexes current for the k tasks it changed.
+     *
+     * @return <code>false</code> if there was nothing to undo.
+     */
+    public boolean undo() {
+        return revertLast(undoHistory, redoHistory);
+    }
+
+    /**
+     * Redoes the last edit undone, unless the list was changed since.
+     *
+     * @return <code>false</code> if there was nothing to redo.
+     */
+    public boolean redo() {
+        return revertLast(redoHistory, undoHistory);
+    }
+
+    /**
+     * Forgets every edit, such as those made while loading the list.
+     */
+    public void clearHistory() {
+        lock.writeLock().lock();
+        try {
+            undoHistory.clear();
+            redoHistory.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the number of edits which can be undone.
+     *
+     * @param depth number of edits kept, which is at least 0.
+     */
+    public void setHistoryDepth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("History depth must not be negative.");
+        }
+        lock.writeLock().lock();
+        try {
+            historyDepth = depth;
+            trimHistory(undoHistory);
+            trimHistory(redoHistory);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets when the queries which check every task do so in parallel,
+     * instead of the settings from the system properties.
+     *
+     * @param parallelScan settings for checking tasks in parallel.
+     */
+    public void setParallelScan(ParallelScan parallelScan) {
+        this.parallelScan = parallelScan;
+    }
+
+    /**
+     * Gets the number of changes made to the list, including those undone
+     * and redone, which differs whenever the list may have changed.
+     *
+     * @return number of changes made so far.
+     */
+    public long getChangeCount() {
+        lock.readLock().lock();
+        try {
+            return changeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Iterates over the tasks from the specified index, in O(log n) to start.
+     * The iterator does not hold the lock, and fails if a task is added or
+     * deleted while it is in use.
+     */
+    Iterator<Task> iterator(int from) {
+        return this.tasks.iterator(from);
+    }
+
+    /**
+     * Gets the number of times tasks have been added to or deleted from the list.
+     */
+    int getModCount() {
+        lock.readLock().lock();
+        try {
+            return this.tasks.getModCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the positions of the tasks which match a predicate.
+     */
+    int[] findPositions(Predicate<Task> predicate) {
+        ArrayList<Integer> found;
+        lock.readLock().lock();
+        try {
+            found = parallelScan.collect(tasks.size(), (from, to, matches) -> {
+                Iterator<Task> iterator = tasks.iterator(from);
+                for (int i = from; i < to; i++) {
+                    if (predicate.test(iterator.next())) {
+                        matches.add(i);
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        int[] positions = new int[found.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = found.get(i);
+        }
+        return positions;
+    }
+
+    /**
+     * Makes a view of tasks in this list, finding their positions from
+     * their sequence numbers in O(log n) each.
+     */
+    private TaskListView viewOf(List<Task> found) {
+        int[] positions = new int[found.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = tasks.indexOfSequence(found.get(i).getSequence());
+        }
+        return TaskListView.ofPositions(this, positions, found);
+    }
+
+    /**
+     * Replaces the task at the specified index with a changed copy, leaving
+     * the list as it was if the change fails.
+     */
+    private <E extends Exception> Task replaceWithCopy(int index, TaskChange<E> change) throws E {
+        lock.writeLock().lock();
+        try {
+            Task task = this.tasks.get(index);
+            Task changed = task.copy();
+            change.apply(changed);
+            TaskTree before = this.tasks.snapshot();
+            unindex(task);
+            this.tasks.set(index, changed);
+            index(changed);
+            record(before, task, changed);
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps a change in the open edit, or as an edit of its own if there is
+     * none, which means nothing undone can be redone any more.
+     */
+    private void record(TaskTree before, Task removed, Task added) {
+        changeCount++;
+        redoHistory.clear();
+        if (openEdit != null) {
+            openEdit.record(removed, added);
+            return;
+        }
+        Edit edit = new Edit(before);
+        edit.record(removed, added);
+        pushEdit(undoHistory, edit);
+    }
+
+    /**
+     * Opens an edit for a change made of several, unless one is open already.
+     */
+    private boolean beginOwnEdit() {
+        if (openEdit != null) {
+            return false;
+        }
+        openEdit = new Edit(this.tasks.snapshot());
+        return true;
+    }
+
+    private void endOwnEdit(boolean isOwnEdit) {
+        if (isOwnEdit) {
+            closeOpenEdit();
+            openEdit = null;
+        }
+    }
+
+    private void closeOpenEdit() {
+        if (openEdit != null && !openEdit.isEmpty()) {
+            pushEdit(undoHistory, openEdit);
+        }
+    }
+
+    /**
+     * Brings the list back to before the last edit of one history, keeping
+     * the edit which reverses it in the other.
+     */
+    private boolean revertLast(ArrayDeque<Edit> from, ArrayDeque<Edit> to) {
+        lock.writeLock().lock();
+        try {
+            closeOpenEdit();
+            Edit edit = from.poll();
+            if (edit != null) {
+                changeCount++;
+                pushEdit(to, new Edit(this.tasks.snapshot(), edit.added, edit.removed));
+                this.tasks.restore(edit.before);
+                for (Task task : edit.added) {
+                    unindex(task);
+                }
+                for (Task task : edit.removed) {
+                    index(task);
+                }
+            }
+            if (openEdit != null) {
+                // changes after this are a new edit
+                openEdit = new Edit(this.tasks.snapshot());
+            }
+            return edit != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void pushEdit(ArrayDeque<Edit> history, Edit edit) {
+        history.push(edit);
+        trimHistory(history);
+    }
+
+    private void trimHistory(ArrayDeque<Edit> history) {
+        while (history.size() > historyDepth) {
+            history.removeLast();
+        }
+    }
+
+    /**
+     * Takes the read lock, having built the indexes first if this is the
+     * first query on the list, which needs the write lock.
+     */
+    private void readLockIndexed() {
+        lock.readLock().lock();
+        if (isIndexed) {
+            return;
+        }
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            ensureIndexed();
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the indexes if this is the first query on the list, which is
+     * only done while holding the write lock.
+     */
+    private void ensureIndexed() {
+        if (!isIndexed) {
+            isIndexed = true;
+            for (Task task : tasks) {
+                index(task);
+            }
+        }
+    }
+
+    private void index(Task task) {
+        if (!isIndexed) {
+            return;
+        }
+        byId.put(task.getId(), task);
+        tokenIndex.add(task);
+        trigramIndex.add(task);
+        if (task instanceof EventTask) {
+            eventIndex.add((EventTask) task);
+        } else if (task instanceof DeadlineTask) {
+            deadlineIndex.add((DeadlineTask) task);
+        }
+    }
+
+    private void unindex(Task task) {
+        if (!isIndexed) {
+            return;
+        }
+        byId.remove(task.getId());
+        tokenIndex.remove(task);
+        trigramIndex.remove(task);
+        if (task instanceof EventTask) {
+            eventIndex.remove((EventTask) task);
+        } else if (task instanceof DeadlineTask) {
+            deadlineIndex.remove((DeadlineTask) task);
+        }
     }
 
     /**
@@ -85,17 +781,141 @@ public class TaskList {
      * specified date.
      *
      * @param date specified date.
-     * @return <code>TaskList</code> object containing a list of tasks
+     * @return <code>TaskListView</code> of the tasks found, in order.
      */
-    public TaskList getTasksOnDate(DateTime date) {
-        ArrayList<Task> tasksToDisplayList = new ArrayList<Task>();
-        for (Task task : tasks) {
-            if (task.getHasDate()) {
-                if (task.isWithinDate(date)) {
-                    tasksToDisplayList.add(task);
+    public TaskListView getTasksOnDate(DateTime date) {
+        readLockIndexed();
+        try {
+            ArrayList<Task> deadlines = deadlineIndex.findOnDay(date.toEpochDay());
+            ArrayList<Task> events = eventIndex.findOnDay(date.toEpochDay());
+            return viewOf(mergeBySequence(deadlines, events));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a list of deadlines due within the specified dates.
+     *
+     * @param from first date of the range (inclusive).
+     * @param to last date of the range (inclusive).
+     * @return <code>TaskListView</code> of the deadlines,
+     *     sorted by the date they are due.
+     */
+    public TaskListView getDeadlinesBetween(DateTime from, DateTime to) {
+        readLockIndexed();
+        try {
+            return viewOf(deadlineIndex.findBetween(from.toEpochDay(), to.toEpochDay()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a list of deadlines due on or before the specified date.
+     *
+     * @param date specified date (inclusive).
+     * @return <code>TaskListView</code> of the deadlines,
+     *     sorted by the date they are due.
+     */
+    public TaskListView getDeadlinesDueBy(DateTime date) {
+        readLockIndexed();
+        try {
+            return viewOf(deadlineIndex.findBetween(Long.MIN_VALUE, date.toEpochDay()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a list of deadlines due before the specified date.
+     *
+     * @param date specified date (exclusive).
+     * @return <code>TaskListView</code> of the deadlines,
+     *     sorted by the date they are due.
+     */
+    public TaskListView getDeadlinesBefore(DateTime date) {
+        readLockIndexed();
+        try {
+            return viewOf(deadlineIndex.findBetween(Long.MIN_VALUE, date.toEpochDay() - 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a list of tasks whose names contain every word of the search,
+     * ignoring case. Only whole words match.
+     *
+     * @param search words to be searched for.
+     * @return <code>TaskListView</code> of the matching tasks, in order.
+     */
+    public TaskListView getTasksWithWords(String search) {
+        readLockIndexed();
+        try {
+            return viewOf(tokenIndex.findAll(search));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the tasks whose names are closest to the search, allowing a
+     * few typos in each word, and ignoring case.
+     *
+     * @param search words to be searched for, possibly misspelt.
+     * @param limit largest number of tasks to be found.
+     * @return the tasks found with their distances from the search, closest first.
+     */
+    public ArrayList<FuzzyMatch> getClosestMatches(String search, int limit) {
+        readLockIndexed();
+        try {
+            return tokenIndex.findClosest(search, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a list of tasks whose names contain the keyword. Keywords with
+     * fewer than three characters, or made of common trigrams, are searched
+     * for by checking every task, in parallel if the list is large enough,
+     * when the view is first read.
+     *
+     * @param keyword keyword to be searched for, which is case-sensitive.
+     * @return <code>TaskListView</code> of the matching tasks, in order.
+     */
+    public TaskListView getTasksContaining(String keyword) {
+        if (keyword.length() >= TrigramIndex.MIN_KEYWORD_LENGTH) {
+            readLockIndexed();
+            try {
+                ArrayList<Task> found = trigramIndex.findContaining(keyword, tasks.size() / MAX_CANDIDATE_FRACTION);
+                if (found != null) {
+                    return viewOf(found);
                 }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return filter(task -> task.containsInName(keyword));
+    }
+
+    /**
+     * Merges two lists of tasks which are each in order of sequence number.
+     */
+    private static ArrayList<Task> mergeBySequence(ArrayList<Task> first, ArrayList<Task> second) {
+        ArrayList<Task> merged = new ArrayList<>(first.size() + second.size());
+        int i = 0;
+        int j = 0;
+        while (i < first.size() && j < second.size()) {
+            if (first.get(i).getSequence() < second.get(j).getSequence()) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
             }
         }
-        return new TaskList(tasksToDisplayList);
+        merged.addAll(first.subList(i, first.size()));
+        merged.addAll(second.subList(j, second.size()));
+        return merged;
     }
 }
@@ -0,0 +1,197 @@
+package chaterpillar.tasks;
+
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Read-only view of some of the tasks in a <code>TaskList</code>, such as the
+ * results of a query, which keeps the positions of the tasks in that list
+ * instead of copying them into a new one. The positions are either given, or
+ * found from a predicate the first time the view is read.
+ *
+ * <p>A view of the results of a query keeps the tasks found by the indexes,
+ * so it can still be read after the list changes, as it was when the query
+ * was made; <code>isCurrent</code> tells if its positions are still right.
+ * Other views read the list itself, so like <code>List.subList</code>, reading
+ * them after a task is added to or deleted from the list throws
+ * <code>ConcurrentModificationException</code>.
+ *
+ * @author marclamp
+ */
+public class TaskListView {
+    private final TaskList source;
+    private final List<Task> found;
+    private final Predicate<Task> predicate;
+    private final int expectedModCount;
+    private final boolean isWholeList;
+    private int[] positions;
+
+    private TaskListView(TaskList source, int[] positions, List<Task> found, Predicate<Task> predicate,
+                         boolean isWholeList) {
+        this.source = source;
+        this.positions = positions;
+        this.found = found;
+        this.predicate = predicate;
+        this.isWholeList = isWholeList;
+        this.expectedModCount = source.getModCount();
+    }
+
+    /**
+     * Creates a view of every task in the list.
+     *
+     * @param source list of tasks.
+     * @return <code>TaskListView</code> object.
+     */
+    static TaskListView ofAll(TaskList source) {
+        return new TaskListView(source, null, null, null, true);
+    }
+
+    /**
+     * Creates a view of tasks found by a query, with their positions.
+     *
+     * @param source list of tasks.
+     * @param positions positions of the tasks in the list, in the order they are shown.
+     * @param found the tasks at those positions, in the same order.
+     * @return <code>TaskListView</code> object.
+     */
+    static TaskListView ofPositions(TaskList source, int[] positions, List<Task> found) {
+        assert positions.length == found.size() : "Each task found should have a position";
+        return new TaskListView(source, positions, found, null, false);
+    }
+
+    /**
+     * Creates a view of the tasks which match a predicate, which is only
+     * checked the first time the view is read.
+     *
+     * @param source list of tasks.
+     * @param predicate condition for a task to be in the view.
+     * @return <code>TaskListView</code> object.
+     */
+    static TaskListView ofMatching(TaskList source, Predicate<Task> predicate) {
+        return new TaskListView(source, null, null, predicate, false);
+    }
+
+    /**
+     * Gives the number of tasks in the view.
+     *
+     * @return number of tasks
+     */
+    public int size() {
+        if (found != null) {
+            return found.size();
+        }
+        checkForComodification();
+        return isWholeList ? source.size() : getPositions().length;
+    }
+
+    /**
+     * Gets a task in the view, in O(log n).
+     *
+     * @param index index of the task in the view.
+     * @return <code>Task</code> object at that index.
+     */
+    public Task get(int index) {
+        return found != null ? found.get(index) : source.get(getIndex(index));
+    }
+
+    /**
+     * Gets the position in the full list of a task in the view.
+     *
+     * @param index index of the task in the view.
+     * @return index of the same task in the list this is a view of.
+     */
+    public int getIndex(int index) {
+        if (found == null) {
+            checkForComodification();
+        }
+        if (isWholeList) {
+            return index;
+        }
+        int[] known = getPositions();
+        if (index < 0 || index >= known.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + known.length);
+        }
+        return known[index];
+    }
+
+    /**
+     * Checks that no task has been added to or deleted from the list since
+     * this view was made, so that the positions of its tasks are still right.
+     *
+     * @return <code>true</code> if the list has not changed in that way.
+     */
+    public boolean isCurrent() {
+        return source.getModCount() == expectedModCount;
+    }
+
+    /**
+     * Iterates over the tasks in the view, in order, from the specified
+     * index, so that a page of the view can be read without the rest.
+     *
+     * @param from index in the view of the first task.
+     * @return iterator over the tasks from that index.
+     */
+    public Iterator<Task> iterator(int from) {
+        if (found != null) {
+            return found.listIterator(from);
+        }
+        checkForComodification();
+        if (isWholeList) {
+            return source.iterator(from);
+        }
+        int[] known = getPositions();
+        return new Iterator<>() {
+            private int index = from;
+
+            @Override
+            public boolean hasNext() {
+                return index < known.length;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                checkForComodification();
+                return source.get(known[index++]);
+            }
+        };
+    }
+
+    /**
+     * Gets the tasks in the view as a read-only list, without copying them.
+     *
+     * @return <code>List</code> of <code>Task</code>
+     */
+    public List<Task> getTasks() {
+        return new AbstractList<>() {
+            @Override
+            public Task get(int index) {
+                return TaskListView.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return TaskListView.this.size();
+            }
+        };
+    }
+
+    private int[] getPositions() {
+        if (positions == null) {
+            positions = source.findPositions(predicate);
+        }
+        return positions;
+    }
+
+    private void checkForComodification() {
+        if (!isCurrent()) {
+            throw new ConcurrentModificationException("The list of tasks changed after this view of it was made.");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package chaterpillar.tasks;
+
+import chaterpillar.exceptions.ChaterpillarException;
+
+/**
+ * Refers to a task in a <code>TaskList</code>, either by its position, which
+ * changes when earlier tasks are deleted, or by its id, which does not.
+ *
+ * @author marclamp
+ */
+public class TaskReference {
+    private final int index;
+    private final long id;
+
+    /**
+     * Constructor for a reference by position.
+     *
+     * @param index index of the task, starting from 0.
+     */
+    public TaskReference(int index) {
+        this(index, 0);
+    }
+
+    private TaskReference(int index, long id) {
+        this.index = index;
+        this.id = id;
+    }
+
+    /**
+     * Parses a reference as typed by the user: a position starting from 1,
+     * such as <code>3</code>, or an id, such as <code>#12</code>.
+     *
+     * @param text reference typed by the user.
+     * @return <code>TaskReference</code> object.
+     * @throws NumberFormatException if the text is not a number, with or
+     *     without a leading '#'.
+     */
+    public static TaskReference parse(String text) {
+        if (text.startsWith("#")) {
+            long id = Long.parseLong(text.substring(1));
+            if (id <= 0) {
+                throw new NumberFormatException("Ids are positive: " + text);
+            }
+            return new TaskReference(-1, id);
+        }
+        return new TaskReference(Integer.parseInt(text) - 1);
+    }
+
+    /**
+     * Checks if this refers to a task by its id.
+     *
+     * @return <code>true</code> if this refers to a task by its id.
+     */
+    public boolean isById() {
+        return id != 0;
+    }
+
+    /**
+     * Gets the current position of the task referred to.
+     *
+     * @param tasks the list of tasks.
+     * @return index of the task, starting from 0. A reference by position is
+     *     returned as it is, even if there is no task there.
+     * @throws ChaterpillarException if there is no task with the id referred to.
+     */
+    public int resolve(TaskList tasks) throws ChaterpillarException {
+        if (!isById()) {
+            return index;
+        }
+        int found = tasks.getIndexOfId(id);
+        if (found < 0) {
+            throw new ChaterpillarException("Sorry! There is no task with the id #" + id + ".");
+        }
+        return found;
+    }
+
+    @Override
+    public String toString() {
+        return isById() ? "#" + id : String.valueOf(index + 1);
+    }
+}
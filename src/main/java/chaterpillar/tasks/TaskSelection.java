@@ -0,0 +1,138 @@
+package chaterpillar.tasks;
+
+import java.util.BitSet;
+
+import chaterpillar.datetime.DateTime;
+import chaterpillar.exceptions.ChaterpillarException;
+
+/**
+ * Refers to several tasks in a <code>TaskList</code> at once: a list of
+ * references and ranges of them, such as <code>3,7,9-12</code> or
+ * <code>#4-#9</code>, every task, <code>all</code>, or every deadline due
+ * by a date, <code>all done-by 1/10/2026</code>.
+ *
+ * @author marclamp
+ */
+public class TaskSelection {
+    private static final String ALL = "all";
+    private static final String DONE_BY = "done-by";
+
+    private final TaskReference[] firsts;
+    private final TaskReference[] lasts;
+    private final boolean isAll;
+    private final DateTime dueBy;
+
+    private TaskSelection(TaskReference[] firsts, TaskReference[] lasts, boolean isAll, DateTime dueBy) {
+        this.firsts = firsts;
+        this.lasts = lasts;
+        this.isAll = isAll;
+        this.dueBy = dueBy;
+    }
+
+    /**
+     * Checks if the text typed by the user refers to more than one task,
+     * rather than a single <code>TaskReference</code>.
+     *
+     * @param text the text after the command.
+     * @return <code>true</code> if the text is a list, a range or <code>all</code>.
+     */
+    public static boolean isSelection(String text) {
+        return text.startsWith(ALL) || text.indexOf(',') >= 0 || text.indexOf('-', 1) >= 0;
+    }
+
+    /**
+     * Parses a selection as typed by the user.
+     *
+     * @param text the text after the command.
+     * @return <code>TaskSelection</code> object.
+     * @throws ChaterpillarException if the date after <code>done-by</code> is invalid.
+     * @throws NumberFormatException if a reference is not a number, with or
+     *     without a leading '#', or if the text is in the wrong format.
+     */
+    public static TaskSelection parse(String text) throws ChaterpillarException {
+        String trimmed = text.trim();
+        if (trimmed.equals(ALL)) {
+            return new TaskSelection(null, null, true, null);
+        }
+        if (trimmed.startsWith(ALL + " " + DONE_BY + " ")) {
+            String date = trimmed.substring(ALL.length() + DONE_BY.length() + 2).trim();
+            return new TaskSelection(null, null, true, new DateTime(date));
+        }
+        String[] parts = trimmed.split(",");
+        TaskReference[] firsts = new TaskReference[parts.length];
+        TaskReference[] lasts = new TaskReference[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i].trim();
+            int dash = part.indexOf('-', 1);
+            if (dash < 0) {
+                firsts[i] = TaskReference.parse(part);
+                lasts[i] = firsts[i];
+            } else {
+                firsts[i] = TaskReference.parse(part.substring(0, dash).trim());
+                lasts[i] = TaskReference.parse(part.substring(dash + 1).trim());
+            }
+        }
+        return new TaskSelection(firsts, lasts, false, null);
+    }
+
+    /**
+     * Gets the current positions of the tasks referred to, with each only
+     * once, in O(k log n) for k tasks, using the deadline index for
+     * <code>done-by</code>.
+     *
+     * @param tasks the list of tasks.
+     * @return indexes of the tasks, starting from 0, in increasing order.
+     * @throws ChaterpillarException if a task referred to does not exist,
+     *     or a range ends before it starts.
+     */
+    public int[] resolve(TaskList tasks) throws ChaterpillarException {
+        int size = tasks.size();
+        BitSet positions = new BitSet(size);
+        if (isAll && dueBy == null) {
+            positions.set(0, size);
+        } else if (isAll) {
+            TaskListView due = tasks.getDeadlinesDueBy(dueBy);
+            for (int i = 0; i < due.size(); i++) {
+                positions.set(due.getIndex(i));
+            }
+        } else {
+            for (int i = 0; i < firsts.length; i++) {
+                int first = resolveOne(firsts[i], tasks, size);
+                int last = resolveOne(lasts[i], tasks, size);
+                if (last < first) {
+                    throw new ChaterpillarException("Sorry! The range " + firsts[i] + "-" + lasts[i]
+                                                    + " ends before it starts.");
+                }
+                positions.set(first, last + 1);
+            }
+        }
+        return positions.stream().toArray();
+    }
+
+    private static int resolveOne(TaskReference reference, TaskList tasks, int size) throws ChaterpillarException {
+        int index = reference.resolve(tasks);
+        if (index < 0 || index >= size) {
+            throw new ChaterpillarException("Sorry! Item " + reference + " does not exist in the list.\n"
+                                            + "You currently have " + size + " tasks in the list.");
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        if (isAll) {
+            return dueBy == null ? ALL : ALL + " " + DONE_BY + " " + dueBy;
+        }
+        StringBuilder strBdr = new StringBuilder();
+        for (int i = 0; i < firsts.length; i++) {
+            if (i > 0) {
+                strBdr.append(',');
+            }
+            strBdr.append(firsts[i]);
+            if (lasts[i] != firsts[i]) {
+                strBdr.append('-').append(lasts[i]);
+            }
+        }
+        return strBdr.toString();
+    }
+}
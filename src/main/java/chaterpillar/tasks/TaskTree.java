@@ -0,0 +1,344 @@
+package chaterpillar.tasks;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * List of tasks kept in an implicit treap, so that getting, inserting and
+ * deleting a task by its position all take O(log n), instead of the O(n) shift
+ * of an <code>ArrayList</code> on insert and delete. Used by <code>TaskList</code>.
+ *
+ * <p>Each node records the size of its subtree, which gives the position of
+ * every task without storing it, so positions after a delete need no renumbering.
+ * The random priorities of the nodes keep the tree balanced in expectation.
+ *
+ * <p>The tree is persistent: once a node is part of the tree it is never
+ * changed, and a change copies only the O(log n) nodes on its path, sharing
+ * the rest. A <code>snapshot</code> therefore takes O(1), can be read by any
+ * thread without locking, and can be <code>restore</code>d to undo every
+ * change made since.
+ *
+ * @author marclamp
+ */
+class TaskTree extends AbstractList<Task> {
+    private final SplittableRandom random = new SplittableRandom();
+    private final boolean isReadOnly;
+    private volatile Node root;
+
+    /**
+     * Creates an empty <code>TaskTree</code> object.
+     */
+    TaskTree() {
+        this.isReadOnly = false;
+    }
+
+    /**
+     * Creates a <code>TaskTree</code> object with the tasks provided, in O(n).
+     *
+     * @param tasks list of tasks, in order.
+     */
+    TaskTree(List<Task> tasks) {
+        // builds the tree along its right spine, as each task goes after all the others;
+        // the only time nodes are changed, before the tree can be read
+        ArrayDeque<Node> rightSpine = new ArrayDeque<>();
+        for (Task task : tasks) {
+            Node node = new Node(task, random.nextInt(), null, null);
+            Node lastPopped = null;
+            while (!rightSpine.isEmpty() && rightSpine.peek().priority < node.priority) {
+                lastPopped = rightSpine.pop();
+            }
+            node.left = lastPopped;
+            if (!rightSpine.isEmpty()) {
+                rightSpine.peek().right = node;
+            }
+            rightSpine.push(node);
+        }
+        Node built = rightSpine.peekLast();
+        updateSizes(built);
+        this.isReadOnly = false;
+        this.root = built;
+    }
+
+    private TaskTree(Node root) {
+        this.isReadOnly = true;
+        this.root = root;
+    }
+
+    private static int updateSizes(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        node.size = 1 + updateSizes(node.left) + updateSizes(node.right);
+        return node.size;
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(root);
+    }
+
+    @Override
+    public Task get(int index) {
+        return nodeAt(root, index).task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        checkWritable();
+        Node current = root;
+        Task replaced = nodeAt(current, index).task;
+        root = setAt(current, index, task);
+        return replaced;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        checkWritable();
+        Node current = root;
+        if (index < 0 || index > sizeOf(current)) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + sizeOf(current));
+        }
+        Node[] parts = split(current, index);
+        root = merge(merge(parts[0], new Node(task, random.nextInt(), null, null)), parts[1]);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        checkWritable();
+        Node current = root;
+        checkIndex(current, index);
+        Node[] parts = split(current, index);
+        Node[] removed = split(parts[1], 1);
+        root = merge(parts[0], removed[1]);
+        modCount++;
+        return removed[0].task;
+    }
+
+    @Override
+    public void clear() {
+        checkWritable();
+        root = null;
+        modCount++;
+    }
+
+    /**
+     * Gets the tree as it is now, in O(1), sharing all of its nodes.
+     *
+     * @return read-only <code>TaskTree</code> which never changes.
+     */
+    TaskTree snapshot() {
+        return new TaskTree(root);
+    }
+
+    /**
+     * Brings the tree back to a snapshot taken from it, in O(1).
+     *
+     * @param snapshot snapshot to be restored.
+     */
+    void restore(TaskTree snapshot) {
+        checkWritable();
+        root = snapshot.root;
+        modCount++;
+    }
+
+    /**
+     * Iterates over the tasks in order, in O(n) for the whole list.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * Iterates over the tasks in order from the specified index, taking
+     * O(log n) to start and O(k) for the next k tasks.
+     *
+     * @param from index of the first task.
+     * @return iterator over the tasks from that index.
+     */
+    Iterator<Task> iterator(int from) {
+        return new Iterator<>() {
+            private final ArrayDeque<Node> pending = new ArrayDeque<>();
+            private final int expectedModCount = modCount;
+
+            {
+                // keeps the ancestors at or after the index, as pushLeftSpine would have
+                int index = from;
+                Node node = root;
+                while (node != null) {
+                    int leftSize = sizeOf(node.left);
+                    if (index <= leftSize) {
+                        pending.push(node);
+                        node = node.left;
+                    } else {
+                        index -= leftSize + 1;
+                        node = node.right;
+                    }
+                }
+            }
+
+            private void pushLeftSpine(Node node) {
+                for (Node current = node; current != null; current = current.left) {
+                    pending.push(current);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public Task next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (pending.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node node = pending.pop();
+                pushLeftSpine(node.right);
+                return node.task;
+            }
+        };
+    }
+
+    /**
+     * Gets the number of times tasks have been added to or removed from the list.
+     *
+     * @return count of structural changes.
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Gets the position of the task with a sequence number, provided the
+     * tasks are in order of their sequence numbers.
+     *
+     * @param sequence sequence number of the task.
+     * @return position of the task, or -1 if it is not in the list.
+     */
+    int indexOfSequence(long sequence) {
+        Node node = root;
+        int position = 0;
+        while (node != null) {
+            long nodeSequence = node.task.getSequence();
+            if (sequence < nodeSequence) {
+                node = node.left;
+            } else if (sequence > nodeSequence) {
+                position += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                return position + sizeOf(node.left);
+            }
+        }
+        return -1;
+    }
+
+    private void checkWritable() {
+        if (isReadOnly) {
+            throw new UnsupportedOperationException("A snapshot of the list of tasks cannot be changed.");
+        }
+    }
+
+    private static void checkIndex(Node root, int index) {
+        if (index < 0 || index >= sizeOf(root)) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + sizeOf(root));
+        }
+    }
+
+    private static Node nodeAt(Node root, int index) {
+        checkIndex(root, index);
+        Node node = root;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Copies the path to the task at the index, replacing that task.
+     */
+    private static Node setAt(Node node, int index, Task task) {
+        int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            return new Node(node.task, node.priority, setAt(node.left, index, task), node.right);
+        } else if (index == leftSize) {
+            return new Node(task, node.priority, node.left, node.right);
+        } else {
+            return new Node(node.task, node.priority, node.left, setAt(node.right, index - leftSize - 1, task));
+        }
+    }
+
+    private static int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Splits a tree into its first <code>count</code> tasks and the rest,
+     * copying the nodes on the path of the split.
+     */
+    private static Node[] split(Node node, int count) {
+        if (node == null) {
+            return new Node[2];
+        }
+        int leftSize = sizeOf(node.left);
+        Node[] parts;
+        if (count <= leftSize) {
+            parts = split(node.left, count);
+            parts[1] = new Node(node.task, node.priority, parts[1], node.right);
+        } else {
+            parts = split(node.right, count - leftSize - 1);
+            parts[0] = new Node(node.task, node.priority, node.left, parts[0]);
+        }
+        return parts;
+    }
+
+    /**
+     * Joins two trees, where every task of the first goes before those of the
+     * second, copying the nodes on the path of the join.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            return new Node(first.task, first.priority, first.left, merge(first.right, second));
+        } else {
+            return new Node(second.task, second.priority, merge(first, second.left), second.right);
+        }
+    }
+
+    private static class Node {
+        private final Task task;
+        private final int priority;
+        private int size;
+        private Node left;
+        private Node right;
+
+        Node(Task task, int priority, Node left, Node right) {
+            this.task = task;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + sizeOf(left) + sizeOf(right);
+        }
+    }
+}
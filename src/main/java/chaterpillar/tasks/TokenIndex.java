@@ -0,0 +1,175 @@
+package chaterpillar.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Inverted index from the words in the names of tasks to the tasks, used by
+ * <code>TaskList</code> to find tasks containing every word of a search
+ * without visiting every task.
+ *
+ * <p>Words are runs of letters and digits, compared in lower case. Each word
+ * maps to the tasks containing it, ordered by sequence number, which is the
+ * order they are in the list of tasks. The words of at least one task are
+ * also kept in a <code>BkTree</code> for fuzzy searches.
+ *
+ * @author marclamp
+ */
+class TokenIndex {
+    private final HashMap<String, TreeMap<Long, Task>> postings = new HashMap<>();
+    private final BkTree words = new BkTree();
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param task task to be added, which must not be in the index already.
+     */
+    void add(Task task) {
+        for (String token : tokenize(task.getTaskName())) {
+            postings.computeIfAbsent(token, t -> {
+                words.add(t);
+                return new TreeMap<>();
+            }).put(task.getSequence(), task);
+        }
+    }
+
+    /**
+     * Removes a task from the index. Its name must not have changed since
+     * it was added.
+     *
+     * @param task task to be removed.
+     */
+    void remove(Task task) {
+        for (String token : tokenize(task.getTaskName())) {
+            TreeMap<Long, Task> posting = postings.get(token);
+            if (posting != null) {
+                posting.remove(task.getSequence());
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                    words.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks whose names contain every word of a search.
+     *
+     * @param search words to be searched for.
+     * @return the tasks, in the order they are in the list of tasks.
+     */
+    ArrayList<Task> findAll(String search) {
+        ArrayList<Task> found = new ArrayList<>();
+        ArrayList<TreeMap<Long, Task>> lists = new ArrayList<>();
+        for (String token : tokenize(search)) {
+            TreeMap<Long, Task> posting = postings.get(token);
+            if (posting == null) {
+                return found;
+            }
+            lists.add(posting);
+        }
+        if (lists.isEmpty()) {
+            return found;
+        }
+        lists.sort((first, second) -> Integer.compare(first.size(), second.size()));
+
+        TreeMap<Long, Task> shortest = lists.get(0);
+        for (Task task : shortest.values()) {
+            boolean isInAll = true;
+            for (int i = 1; i < lists.size() && isInAll; i++) {
+                isInAll = lists.get(i).containsKey(task.getSequence());
+            }
+            if (isInAll) {
+                found.add(task);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the tasks whose names contain a word close to every word of a
+     * search, closest first.
+     *
+     * @param search words to be searched for, possibly misspelt.
+     * @param limit largest number of tasks to be found.
+     * @return the tasks with the total number of edits from the search,
+     *     ordered by that and then as in the list of tasks.
+     */
+    ArrayList<FuzzyMatch> findClosest(String search, int limit) {
+        ArrayList<String> searchTokens = new ArrayList<>(tokenize(search));
+        HashMap<Long, Candidate> candidates = new HashMap<>();
+        for (int i = 0; i < searchTokens.size(); i++) {
+            final int tokenIndex = i;
+            String token = searchTokens.get(i);
+            words.forEachWithin(token, maxDistance(token), (word, distance) -> {
+                for (Task task : postings.get(word).values()) {
+                    Candidate candidate = candidates.computeIfAbsent(task.getSequence(),
+                            sequence -> new Candidate(task, searchTokens.size()));
+                    candidate.distances[tokenIndex] = Math.min(candidate.distances[tokenIndex], distance);
+                }
+            });
+        }
+
+        ArrayList<FuzzyMatch> found = new ArrayList<>();
+        for (Candidate candidate : candidates.values()) {
+            long total = 0;
+            for (int distance : candidate.distances) {
+                total += distance;
+            }
+            if (total < Integer.MAX_VALUE) {
+                found.add(new FuzzyMatch(candidate.task, (int) total));
+            }
+        }
+        found.sort(Comparator.comparingInt(FuzzyMatch::getDistance)
+                .thenComparingLong(match -> match.getTask().getSequence()));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    /**
+     * Gets the number of edits allowed for a word: one for short words, two otherwise.
+     */
+    private static int maxDistance(String token) {
+        return token.length() <= 4 ? 1 : 2;
+    }
+
+    /**
+     * Splits a string into its distinct words, in lower case.
+     *
+     * @param text string to be split.
+     * @return the words, in the order they first appear.
+     */
+    static LinkedHashSet<String> tokenize(String text) {
+        LinkedHashSet<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * A task matching at least one word of a fuzzy search, with the fewest
+     * edits to each word, or <code>Integer.MAX_VALUE</code> if none matched.
+     */
+    private static class Candidate {
+        private final Task task;
+        private final int[] distances;
+
+        Candidate(Task task, int tokenCount) {
+            this.task = task;
+            this.distances = new int[tokenCount];
+            Arrays.fill(distances, Integer.MAX_VALUE);
+        }
+    }
+}
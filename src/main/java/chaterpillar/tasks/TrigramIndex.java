@@ -0,0 +1,155 @@
+package chaterpillar.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Index from every run of three characters in the names of tasks to the
+ * tasks, used by <code>TaskList</code> to find tasks containing a keyword
+ * without checking every task.
+ *
+ * <p>A task containing the keyword contains all of its trigrams, so only the
+ * tasks found in every one of their posting lists are checked with
+ * <code>Task.containsInName</code>. Matching is case-sensitive, as it is there.
+ *
+ * @author marclamp
+ */
+class TrigramIndex {
+    /** Keywords shorter than this have no trigrams, and have to be searched by scanning. */
+    static final int MIN_KEYWORD_LENGTH = 3;
+
+    private final HashMap<Long, SequenceList> postings = new HashMap<>();
+    private final HashMap<Long, Task> bySequence = new HashMap<>();
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param task task to be added, which must not be in the index already.
+     */
+    void add(Task task) {
+        bySequence.put(task.getSequence(), task);
+        for (long trigram : trigramsOf(task.getTaskName())) {
+            postings.computeIfAbsent(trigram, t -> new SequenceList()).insert(task.getSequence());
+        }
+    }
+
+    /**
+     * Removes a task from the index. Its name must not have changed since
+     * it was added.
+     *
+     * @param task task to be removed.
+     */
+    void remove(Task task) {
+        bySequence.remove(task.getSequence());
+        for (long trigram : trigramsOf(task.getTaskName())) {
+            SequenceList posting = postings.get(trigram);
+            if (posting != null) {
+                posting.remove(task.getSequence());
+                if (posting.size == 0) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks whose names contain a keyword, unless its trigrams are
+     * so common that checking the tasks in their posting lists would be slower
+     * than scanning.
+     *
+     * @param keyword keyword of at least <code>MIN_KEYWORD_LENGTH</code> characters.
+     * @param maxCandidates largest number of tasks worth checking.
+     * @return the tasks, in the order they are in the list of tasks, or
+     *     <code>null</code> if there are more than <code>maxCandidates</code> to check.
+     */
+    ArrayList<Task> findContaining(String keyword, int maxCandidates) {
+        assert keyword.length() >= MIN_KEYWORD_LENGTH : "keyword should have at least one trigram";
+        ArrayList<Task> found = new ArrayList<>();
+        long[] trigrams = trigramsOf(keyword);
+        SequenceList[] lists = new SequenceList[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null) {
+                return found;
+            }
+        }
+        Arrays.sort(lists, (first, second) -> Integer.compare(first.size, second.size));
+
+        SequenceList shortest = lists[0];
+        if (shortest.size > maxCandidates) {
+            return null;
+        }
+        for (int i = 0; i < shortest.size; i++) {
+            long sequence = shortest.values[i];
+            boolean isInAll = true;
+            for (int j = 1; j < lists.length && isInAll; j++) {
+                isInAll = lists[j].contains(sequence);
+            }
+            Task task = isInAll ? bySequence.get(sequence) : null;
+            if (task != null && task.containsInName(keyword)) {
+                found.add(task);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets the distinct trigrams of a string, each packed into a <code>long</code>.
+     */
+    private static long[] trigramsOf(String text) {
+        if (text.length() < MIN_KEYWORD_LENGTH) {
+            return new long[0];
+        }
+        long[] trigrams = new long[text.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    /**
+     * Sorted list of sequence numbers, kept in an array to avoid a node per entry.
+     */
+    private static class SequenceList {
+        private long[] values = new long[4];
+        private int size;
+
+        void insert(long sequence) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            if (size == 0 || values[size - 1] < sequence) {
+                values[size++] = sequence;
+                return;
+            }
+            int position = Arrays.binarySearch(values, 0, size, sequence);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            System.arraycopy(values, position, values, position + 1, size - position);
+            values[position] = sequence;
+            size++;
+        }
+
+        void remove(long sequence) {
+            int position = Arrays.binarySearch(values, 0, size, sequence);
+            if (position >= 0) {
+                System.arraycopy(values, position + 1, values, position, size - position - 1);
+                size--;
+            }
+        }
+
+        boolean contains(long sequence) {
+            return Arrays.binarySearch(values, 0, size, sequence) >= 0;
+        }
+    }
+}
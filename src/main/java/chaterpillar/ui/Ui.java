@@ -4,6 +4,8 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 
+import chaterpillar.commands.Command;
+
 /**
  * UI class for this application. Handles all the printing of
  * things to the CLI and GUI.
@@ -20,13 +22,35 @@ public class Ui {
     private static final BufferedReader reader = new BufferedReader(
             new InputStreamReader((System.in)));
 
+    private final boolean isSilent;
+    private volatile Command nextPage;
+
+    /**
+     * Basic constructor for this class, which prints every message.
+     */
+    public Ui() {
+        this(false);
+    }
+
+    /**
+     * Overloaded constructor for a <code>Ui</code> which may print nothing,
+     * such as for the commands of a script.
+     *
+     * @param isSilent whether messages are left unprinted.
+     */
+    public Ui(boolean isSilent) {
+        this.isSilent = isSilent;
+    }
+
     /**
      * Prints out the message given in the String argument.
      *
      * @param s the message to be printed
      */
     public void echo(String s) {
-        System.out.println(s);
+        if (!isSilent) {
+            System.out.println(s);
+        }
     }
 
     /**
@@ -56,6 +80,26 @@ public class Ui {
         return output;
     }
 
+    /**
+     * Keeps the command which shows the next page of the last list shown,
+     * for the <code>more</code> command.
+     *
+     * @param nextPage command to show the next page, or <code>null</code>
+     *     if the whole list has been shown.
+     */
+    public void setNextPage(Command nextPage) {
+        this.nextPage = nextPage;
+    }
+
+    /**
+     * Gets the command which shows the next page of the last list shown.
+     *
+     * @return command to show the next page, or <code>null</code> if there is none.
+     */
+    public Command getNextPage() {
+        return this.nextPage;
+    }
+
     /**
      * Reads the string of command in the input line.
      *
@@ -0,0 +1,98 @@
+package chaterpillar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.storage.Storage;
+import chaterpillar.storage.StorageRegistry;
+import chaterpillar.tasks.TaskList;
+
+public class ChaterpillarTest {
+    private static Chaterpillar newChaterpillar() throws IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        return new Chaterpillar(new StorageRegistry(dir.toString(), StorageRegistry.DEFAULT_CAPACITY));
+    }
+
+    @Test
+    public void getResponse_moreAfterAnotherUsersList_nothingShown() throws ChaterpillarException, IOException {
+        Chaterpillar chaterpillar = newChaterpillar();
+        for (int i = 1; i <= 150; i++) {
+            chaterpillar.getResponse("alice", "todo alice's task " + i);
+        }
+        chaterpillar.getResponse("bob", "todo bob's task");
+
+        assertTrue(chaterpillar.getResponse("alice", "list").getKey().contains("Type 'more'"));
+        assertThrows(ChaterpillarException.class, () -> chaterpillar.getResponse("bob", "more"));
+        assertTrue(chaterpillar.getResponse("alice", "more").getKey().contains("alice's task 150"));
+    }
+
+    @Test
+    public void getResponse_moreAfterListChanged_nothingShown() throws ChaterpillarException, IOException {
+        Chaterpillar chaterpillar = newChaterpillar();
+        for (int i = 1; i <= 150; i++) {
+            chaterpillar.getResponse("alice", "todo task " + i);
+        }
+
+        chaterpillar.getResponse("alice", "list");
+        chaterpillar.getResponse("alice", "mark 1");
+        assertThrows(ChaterpillarException.class, () -> chaterpillar.getResponse("alice", "more"));
+    }
+
+    @Test
+    public void getResponse_listWhileSaving_notBlocked() throws Exception {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        StorageRegistry registry = new StorageRegistry(dir.toString(), StorageRegistry.DEFAULT_CAPACITY);
+        Chaterpillar chaterpillar = new Chaterpillar(registry);
+        chaterpillar.getResponse("alice", "todo first task");
+        StorageRegistry.Entry entry = registry.get("alice");
+        Storage storage = entry.getStorage();
+        TaskList tasks = entry.getTasks();
+        registry.release(entry);
+
+        CountDownLatch isSaving = new CountDownLatch(1);
+        CountDownLatch isSaved = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // a slow save holds the storage until it is let go
+            executor.submit(() -> {
+                synchronized (storage) {
+                    isSaving.countDown();
+                    isSaved.await();
+                }
+                return null;
+            });
+            isSaving.await();
+            Future<?> todo = executor.submit(() -> chaterpillar.getResponse("alice", "todo second task"));
+            while (tasks.size() < 2) {
+                // the task is added to the list before it waits to be saved
+                Thread.sleep(10);
+            }
+            Future<?> list = executor.submit(() -> chaterpillar.getResponse("alice", "list"));
+
+            list.get(5, TimeUnit.SECONDS);
+            assertFalse(todo.isDone());
+            isSaved.countDown();
+            todo.get(5, TimeUnit.SECONDS);
+        } finally {
+            isSaved.countDown();
+            executor.shutdownNow();
+        }
+
+        TaskList reloaded = new Storage(dir.toString(), "alice.txt", "alice.journal.txt").loadFromFile();
+        assertEquals(2, reloaded.size());
+    }
+}
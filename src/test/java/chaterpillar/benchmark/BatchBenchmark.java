@@ -0,0 +1,85 @@
+package chaterpillar.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import chaterpillar.commands.BatchRunner;
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.parser.Parser;
+import chaterpillar.storage.FsyncPolicy;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * Measures the commands per second of a script of 20,000 commands run one at
+ * a time, each saved as it is run, and through a <code>BatchRunner</code>
+ * which saves at the end or every 1,000 commands. Every save is forced to
+ * disk, as with <code>fsync per-save</code>.
+ * Run with <code>gradlew benchmark -Pbenchmark=BatchBenchmark</code>.
+ */
+public class BatchBenchmark {
+    private static final int COMMAND_COUNT = 20_000;
+    private static final int SAVE_EVERY = 1_000;
+
+    public static void main(String[] args) throws ChaterpillarException, IOException {
+        String script = buildScript();
+        for (int round = 1; round <= 3; round++) {
+            Storage storage = newStorage();
+            TaskList tasks = storage.loadFromFile();
+            Ui ui = new Ui(true);
+            long start = System.nanoTime();
+            for (String line : script.split("\n")) {
+                Parser.parse(line).execute(tasks, ui, storage);
+            }
+            double single = COMMAND_COUNT * 1e9 / (System.nanoTime() - start);
+
+            double atEnd = runBatch(script, BatchRunner.SAVE_AT_END);
+            double every = runBatch(script, SAVE_EVERY);
+            System.out.printf("round %d: %,.0f commands/s one at a time, %,.0f saving at the end, "
+                    + "%,.0f saving every %d%n", round, single, atEnd, every, SAVE_EVERY);
+        }
+    }
+
+    private static String buildScript() {
+        StringBuilder strBdr = new StringBuilder();
+        for (int i = 1; i <= COMMAND_COUNT; i++) {
+            switch (i % 4) {
+            case 0:
+                strBdr.append("mark ").append(i / 2);
+                break;
+            case 1:
+                strBdr.append("todo read chapter ").append(i);
+                break;
+            case 2:
+                strBdr.append("deadline submit report ").append(i).append(" /by 25-2-2024");
+                break;
+            default:
+                strBdr.append("update ").append(i / 2).append(" /name renamed ").append(i);
+                break;
+            }
+            strBdr.append("\n");
+        }
+        return strBdr.toString();
+    }
+
+    private static double runBatch(String script, int saveEvery) throws ChaterpillarException, IOException {
+        Storage storage = newStorage();
+        BatchRunner.Summary summary = new BatchRunner(saveEvery, true).run(
+                new BufferedReader(new StringReader(script)), storage.loadFromFile(), new Ui(true), storage);
+        if (summary.getErrorCount() > 0) {
+            throw new AssertionError(summary.toString());
+        }
+        return summary.getCommandsPerSecond();
+    }
+
+    private static Storage newStorage() throws IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = new Storage(dir.toString(), "history.txt", "history.journal.txt");
+        storage.setFsyncPolicy(FsyncPolicy.PER_SAVE);
+        return storage;
+    }
+}
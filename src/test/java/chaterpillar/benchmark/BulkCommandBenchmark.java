@@ -0,0 +1,63 @@
+package chaterpillar.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.parser.Parser;
+import chaterpillar.storage.FsyncPolicy;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+/**
+ * Measures marking and deleting 500 of 100,000 saved tasks one command at a
+ * time, each saved on its own, and with a single <code>mark 1-500</code> or
+ * <code>delete 1-500</code>, saved with one write. Every save is forced to
+ * disk, as with <code>fsync per-save</code>.
+ * Run with <code>gradlew benchmark -Pbenchmark=BulkCommandBenchmark</code>.
+ */
+public class BulkCommandBenchmark {
+    private static final int TASK_COUNT = 100_000;
+    private static final int SELECTED = 500;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws ChaterpillarException, IOException {
+        for (int round = 1; round <= ROUNDS; round++) {
+            Storage storage = newStorage();
+            TaskList tasks = storage.loadFromFile();
+            long start = System.nanoTime();
+            for (int i = 1; i <= SELECTED; i++) {
+                run("mark " + i, tasks, storage);
+            }
+            for (int i = SELECTED; i >= 1; i--) {
+                run("delete " + i, tasks, storage);
+            }
+            long singleNanos = System.nanoTime() - start;
+
+            storage = newStorage();
+            tasks = storage.loadFromFile();
+            start = System.nanoTime();
+            run("mark 1-" + SELECTED, tasks, storage);
+            run("delete 1-" + SELECTED, tasks, storage);
+            long bulkNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: %d marks and deletes one at a time in %.1f ms, as two commands in %.1f ms%n",
+                    round, SELECTED, singleNanos / 1e6, bulkNanos / 1e6);
+        }
+    }
+
+    private static Storage newStorage() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = new Storage(dir.toString(), "history.txt", "history.journal.txt");
+        storage.loadFromFile();
+        storage.setFsyncPolicy(FsyncPolicy.PER_SAVE);
+        storage.saveAllToFile(DateQueryBenchmark.buildTasks(TASK_COUNT));
+        return storage;
+    }
+
+    private static void run(String input, TaskList tasks, Storage storage) throws ChaterpillarException {
+        Parser.parse(input).execute(tasks, new Ui(), storage);
+    }
+}
@@ -0,0 +1,241 @@
+package chaterpillar.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import chaterpillar.datetime.DateTime;
+import chaterpillar.tasks.DeadlineTask;
+import chaterpillar.tasks.EventTask;
+import chaterpillar.tasks.ParallelScan;
+import chaterpillar.tasks.Task;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TodoTask;
+
+/**
+ * List of tasks stored column by column, as an alternative layout to
+ * <code>TaskList</code> for large lists which are mostly scanned.
+ *
+ * <p>Instead of a <code>Task</code> object per task, each field is kept in an
+ * array indexed by the position of the task: the marked status in a
+ * <code>BitSet</code>, the type in a <code>byte</code> array, the dates as epoch
+ * minutes in <code>long</code> arrays, and the names in a <code>String</code>
+ * array. Scans only read the columns they need, one after the other in memory,
+ * and <code>Task</code> objects are only created when a task is retrieved.
+ *
+ * <p>The application does not use this layout, as it cannot be changed
+ * without copying and does not keep the history that undo needs. It is only
+ * the layout that <code>FootprintBenchmark</code> and
+ * <code>ParallelScanBenchmark</code> compare <code>TaskList</code> against.
+ *
+ * @author marclamp
+ */
+public class ColumnarTaskList {
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+    private static final long MINUTES_PER_DAY = 24 * 60;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final BitSet marked = new BitSet();
+    private final BitSet startHasOnlyDate = new BitSet();
+    private final BitSet endHasOnlyDate = new BitSet();
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int size;
+    private ParallelScan parallelScan = ParallelScan.getDefault();
+
+    /**
+     * Creates an empty <code>ColumnarTaskList</code> object.
+     */
+    public ColumnarTaskList() {
+    }
+
+    /**
+     * Creates a <code>ColumnarTaskList</code> object with the same tasks as a
+     * <code>TaskList</code>.
+     *
+     * @param tasks list of tasks to be copied.
+     */
+    public ColumnarTaskList(TaskList tasks) {
+        for (Task task : tasks.getTasks()) {
+            addTask(task);
+        }
+    }
+
+    /**
+     * Sets when the queries which check every task do so in parallel,
+     * instead of the settings from the system properties.
+     *
+     * @param parallelScan settings for checking tasks in parallel.
+     */
+    public void setParallelScan(ParallelScan parallelScan) {
+        this.parallelScan = parallelScan;
+    }
+
+    /**
+     * Gives the number of tasks in the list.
+     *
+     * @return number of tasks
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a <code>Task</code> to the list.
+     *
+     * @param task <code>Task</code> to be added
+     */
+    public void addTask(Task task) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        names[size] = task.getTaskName();
+        marked.set(size, task.isMarked());
+        if (task instanceof EventTask) {
+            EventTask event = (EventTask) task;
+            setDates(EVENT, event.getDateTimeFrom(), event.getDateTimeTo());
+        } else if (task instanceof DeadlineTask) {
+            DateTime dateTime = ((DeadlineTask) task).getDateTime();
+            setDates(DEADLINE, dateTime, dateTime);
+        } else {
+            types[size] = TODO;
+        }
+        size++;
+    }
+
+    private void setDates(byte type, DateTime start, DateTime end) {
+        types[size] = type;
+        starts[size] = start.toEpochMinute();
+        ends[size] = end.toEpochMinute();
+        startHasOnlyDate.set(size, start.hasOnlyDate());
+        endHasOnlyDate.set(size, end.hasOnlyDate());
+    }
+
+    /**
+     * Gets a task at the specified index, creating a new <code>Task</code>
+     * object from the columns.
+     *
+     * @param index specified index to be retrieved
+     * @return <code>Task</code> object at specified index
+     */
+    public Task get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        boolean isMarked = marked.get(index);
+        switch (types[index]) {
+        case DEADLINE:
+            return new DeadlineTask(names[index], isMarked,
+                    new DateTime(starts[index], startHasOnlyDate.get(index)));
+        case EVENT:
+            return new EventTask(names[index], isMarked,
+                    new DateTime(starts[index], startHasOnlyDate.get(index)),
+                    new DateTime(ends[index], endHasOnlyDate.get(index)));
+        default:
+            return new TodoTask(names[index], isMarked);
+        }
+    }
+
+    /**
+     * Sets the task at the specified index as marked or unmarked.
+     *
+     * @param index specified index to be updated
+     * @param isMarked the new marked status
+     */
+    public void setMarked(int index, boolean isMarked) {
+        get(index);
+        marked.set(index, isMarked);
+    }
+
+    /**
+     * Deletes the task at the specified index.
+     *
+     * @param index specified index to be deleted
+     * @return the <code>Task</code> that was deleted.
+     */
+    public Task deleteTaskAtIndex(int index) {
+        Task deleted = get(index);
+        int moved = size - index - 1;
+        System.arraycopy(types, index + 1, types, index, moved);
+        System.arraycopy(starts, index + 1, starts, index, moved);
+        System.arraycopy(ends, index + 1, ends, index, moved);
+        System.arraycopy(names, index + 1, names, index, moved);
+        shiftDown(marked, index);
+        shiftDown(startHasOnlyDate, index);
+        shiftDown(endHasOnlyDate, index);
+        size--;
+        names[size] = null;
+        return deleted;
+    }
+
+    private void shiftDown(BitSet bits, int index) {
+        BitSet after = bits.get(index + 1, size);
+        bits.clear(index, size);
+        for (int i = after.nextSetBit(0); i >= 0; i = after.nextSetBit(i + 1)) {
+            bits.set(index + i);
+        }
+    }
+
+    /**
+     * Gets a list of tasks where its date corresponds to the
+     * specified date, scanning only the type and date columns, in parallel
+     * if the list is large enough.
+     *
+     * @param date specified date.
+     * @return <code>TaskList</code> object containing a list of tasks
+     */
+    public TaskList getTasksOnDate(DateTime date) {
+        long dayStart = date.toEpochDay() * MINUTES_PER_DAY;
+        long dayEnd = dayStart + MINUTES_PER_DAY - 1;
+        ArrayList<Task> found = parallelScan.collect(size, (from, to, matches) -> {
+            for (int i = from; i < to; i++) {
+                if (types[i] == TODO) {
+                    continue;
+                }
+                long start = starts[i];
+                long end = ends[i];
+                // same rules as DateTime.isWithinDate, on minutes instead of days
+                boolean isStartOnDay = start >= dayStart && start <= dayEnd;
+                boolean isEndOnDay = end >= dayStart && end <= dayEnd;
+                if (isStartOnDay || isEndOnDay || (start < dayStart && end > dayEnd)) {
+                    matches.add(get(i));
+                }
+            }
+        });
+        return new TaskList(found);
+    }
+
+    /**
+     * Gets a list of tasks which are marked, or which are not, scanning only
+     * the marked column.
+     *
+     * @param isMarked whether to get the marked tasks or the unmarked ones.
+     * @return <code>TaskList</code> object containing a list of tasks
+     */
+    public TaskList getTasksMarked(boolean isMarked) {
+        ArrayList<Task> found = new ArrayList<>();
+        int i = isMarked ? marked.nextSetBit(0) : marked.nextClearBit(0);
+        while (i >= 0 && i < size) {
+            found.add(get(i));
+            i = isMarked ? marked.nextSetBit(i + 1) : marked.nextClearBit(i + 1);
+        }
+        return new TaskList(found);
+    }
+
+    /**
+     * Counts the tasks which are marked.
+     *
+     * @return number of marked tasks.
+     */
+    public int countMarked() {
+        return marked.cardinality();
+    }
+}
@@ -0,0 +1,109 @@
+package chaterpillar.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import chaterpillar.datetime.DateTime;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TodoTask;
+
+/**
+ * Measures how many reads N reader threads and how many changes one writer
+ * thread get through on a shared <code>TaskList</code> of 100,000 tasks, for
+ * increasing N. Readers get tasks by position, query by date and, now and
+ * then, take a snapshot as a background save would; the writer marks, adds
+ * and deletes tasks. Run with <code>gradlew benchmark -Pbenchmark=ContentionBenchmark</code>.
+ */
+public class ContentionBenchmark {
+    private static final int TASK_COUNT = 100_000;
+    private static final int[] READER_COUNTS = {1, 2, 4, 8};
+    private static final long RUN_MILLIS = 2000;
+    private static final int READS_PER_SNAPSHOT = 10_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int readerCount : READER_COUNTS) {
+            run(readerCount);
+        }
+    }
+
+    private static void run(int readerCount) throws InterruptedException {
+        TaskList tasks = DateQueryBenchmark.buildTasks(TASK_COUNT);
+        DateTime date = new DateTime(LocalDate.of(2024, 3, 1));
+        tasks.getTasksOnDate(date); // builds the indexes before timing
+
+        AtomicBoolean isRunning = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong snapshots = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> threads = new ArrayList<>();
+
+        for (int r = 0; r < readerCount; r++) {
+            long seed = r;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                long count = 0;
+                await(start);
+                while (isRunning.get()) {
+                    if (count % READS_PER_SNAPSHOT == 0) {
+                        tasks.snapshot();
+                        snapshots.incrementAndGet();
+                    } else if (count % 2 == 0) {
+                        tasks.getTasksOnDate(date).size();
+                    } else {
+                        tasks.get(random.nextInt(tasks.size() - 1));
+                    }
+                    count++;
+                }
+                reads.addAndGet(count);
+            }));
+        }
+        threads.add(new Thread(() -> {
+            SplittableRandom random = new SplittableRandom(42);
+            long count = 0;
+            await(start);
+            while (isRunning.get()) {
+                int index = random.nextInt(tasks.size());
+                switch ((int) (count % 3)) {
+                case 0:
+                    tasks.setMarked(index, !tasks.get(index).isMarked());
+                    break;
+                case 1:
+                    tasks.addTask(new TodoTask("added " + count, false));
+                    break;
+                default:
+                    tasks.deleteTaskAtIndex(index);
+                    break;
+                }
+                count++;
+            }
+            writes.addAndGet(count);
+        }));
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        Thread.sleep(RUN_MILLIS);
+        isRunning.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        double seconds = RUN_MILLIS / 1000.0;
+        System.out.printf("%d reader(s): %,.0f reads/s (%d snapshots), 1 writer: %,.0f writes/s%n",
+                readerCount, reads.get() / seconds, snapshots.get(), writes.get() / seconds);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
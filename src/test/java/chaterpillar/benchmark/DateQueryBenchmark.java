@@ -0,0 +1,64 @@
+package chaterpillar.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import chaterpillar.datetime.DateTime;
+import chaterpillar.tasks.DeadlineTask;
+import chaterpillar.tasks.EventTask;
+import chaterpillar.tasks.Task;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TodoTask;
+
+/**
+ * Measures <code>TaskList.getTasksOnDate</code> over a million tasks, and how
+ * many bytes it allocates besides the list of matches.
+ * Run with <code>gradlew benchmark -Pbenchmark=DateQueryBenchmark</code>.
+ */
+public class DateQueryBenchmark {
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int ROUNDS = 5;
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    static TaskList buildTasks(int taskCount) {
+        long firstDay = LocalDate.of(2024, 1, 1).toEpochDay();
+        ArrayList<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            long day = firstDay + i % 366;
+            switch (i % 3) {
+            case 0:
+                tasks.add(new TodoTask("read chapter " + i, false));
+                break;
+            case 1:
+                tasks.add(new DeadlineTask("submit report " + i, false,
+                        new DateTime(day * MINUTES_PER_DAY, true)));
+                break;
+            default:
+                tasks.add(new EventTask("meeting " + i, false,
+                        new DateTime(day * MINUTES_PER_DAY + 14 * 60, false),
+                        new DateTime((day + i % 5) * MINUTES_PER_DAY + 16 * 60, false)));
+                break;
+            }
+        }
+        return new TaskList(tasks);
+    }
+
+    public static void main(String[] args) {
+        TaskList tasks = buildTasks(TASK_COUNT);
+        DateTime date = new DateTime(LocalDate.of(2024, 2, 8));
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            int found = tasks.getTasksOnDate(date).size();
+            long nanos = System.nanoTime() - start;
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+            System.out.printf("round %d: %d of %d tasks on %s in %.1f ms, %d KiB allocated%n",
+                    round, found, TASK_COUNT, date, nanos / 1e6, allocated / 1024);
+        }
+    }
+}
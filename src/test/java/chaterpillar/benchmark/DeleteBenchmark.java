@@ -0,0 +1,42 @@
+package chaterpillar.benchmark;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import chaterpillar.tasks.Task;
+import chaterpillar.tasks.TaskList;
+
+/**
+ * Measures deleting tasks from random positions of a million tasks, with
+ * <code>TaskList.deleteTaskAtIndex</code> and with <code>ArrayList.remove</code>.
+ * Run with <code>gradlew benchmark -Pbenchmark=DeleteBenchmark</code>.
+ */
+public class DeleteBenchmark {
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int DELETES = 10_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        for (int round = 1; round <= ROUNDS; round++) {
+            TaskList tasks = DateQueryBenchmark.buildTasks(TASK_COUNT);
+            ArrayList<Task> array = new ArrayList<>(tasks.getTasks());
+
+            Random random = new Random(round);
+            long start = System.nanoTime();
+            for (int i = 0; i < DELETES; i++) {
+                tasks.deleteTaskAtIndex(random.nextInt(tasks.size()));
+            }
+            long treeNanos = System.nanoTime() - start;
+
+            random = new Random(round);
+            start = System.nanoTime();
+            for (int i = 0; i < DELETES; i++) {
+                array.remove(random.nextInt(array.size()));
+            }
+            long arrayNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: %d deletes from TaskList in %.1f ms, from ArrayList in %.1f ms%n",
+                    round, DELETES, treeNanos / 1e6, arrayNanos / 1e6);
+        }
+    }
+}
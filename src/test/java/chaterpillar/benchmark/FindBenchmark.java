@@ -0,0 +1,43 @@
+package chaterpillar.benchmark;
+
+import chaterpillar.tasks.Task;
+import chaterpillar.tasks.TaskList;
+
+/**
+ * Measures substring search with <code>TaskList.getTasksContaining</code> over
+ * a million tasks, against checking every task with <code>containsInName</code>.
+ * Run with <code>gradlew benchmark -Pbenchmark=FindBenchmark</code>.
+ */
+public class FindBenchmark {
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int ROUNDS = 5;
+    private static final String[] KEYWORDS = {"report 4242", "chapter 99", "meeting", "xyz"};
+
+    public static void main(String[] args) {
+        TaskList tasks = DateQueryBenchmark.buildTasks(TASK_COUNT);
+
+        long start = System.nanoTime();
+        tasks.getTasksContaining(KEYWORDS[0]);
+        System.out.printf("first search, which builds the indexes: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            for (String keyword : KEYWORDS) {
+                start = System.nanoTime();
+                int found = tasks.getTasksContaining(keyword).size();
+                long indexNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                int scanned = 0;
+                for (Task task : tasks.getTasks()) {
+                    if (task.containsInName(keyword)) {
+                        scanned++;
+                    }
+                }
+                long scanNanos = System.nanoTime() - start;
+
+                System.out.printf("round %d: \"%s\" found %d (scan %d) in %.2f ms, scan in %.2f ms%n",
+                        round, keyword, found, scanned, indexNanos / 1e6, scanNanos / 1e6);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package chaterpillar.benchmark;
+
+import java.time.LocalDate;
+
+import chaterpillar.datetime.DateTime;
+import chaterpillar.tasks.Task;
+import chaterpillar.tasks.TaskList;
+
+/**
+ * Compares the heap taken by a million tasks in a <code>TaskList</code> and in a
+ * <code>ColumnarTaskList</code>, and how long each takes to scan them.
+ * Run with <code>gradlew benchmark -Pbenchmark=FootprintBenchmark</code>.
+ */
+public class FootprintBenchmark {
+    private static final int TASK_COUNT = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) {
+        long before = usedHeap();
+        TaskList tasks = DateQueryBenchmark.buildTasks(TASK_COUNT);
+        long objectBytes = usedHeap() - before;
+
+        before = usedHeap();
+        ColumnarTaskList columns = new ColumnarTaskList(tasks);
+        long columnBytes = usedHeap() - before;
+        // the names are shared with the tasks, so count them for the columns too
+        long nameBytes = 0;
+        for (Task task : tasks.getTasks()) {
+            nameBytes += 40 + task.getTaskName().length();
+        }
+
+        System.out.printf("TaskList: %.1f MiB, ColumnarTaskList: %.1f MiB (about %.1f MiB of it names)%n",
+                objectBytes / 1048576.0, (columnBytes + nameBytes) / 1048576.0, nameBytes / 1048576.0);
+
+        DateTime date = new DateTime(LocalDate.of(2024, 2, 8));
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            int scanned = 0;
+            for (Task task : tasks.getTasks()) {
+                if (task.getHasDate() && task.isWithinDate(date)) {
+                    scanned++;
+                }
+            }
+            long objectNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int found = columns.getTasksOnDate(date).size();
+            long columnNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: scan of Task objects found %d in %.1f ms, columns found %d in %.1f ms%n",
+                    round, scanned, objectNanos / 1e6, found, columnNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package chaterpillar.benchmark;
+
+import chaterpillar.tasks.TaskList;
+
+/**
+ * Measures fuzzy search with <code>TaskList.getClosestMatches</code> over
+ * 200k tasks, with misspelt words of different lengths.
+ * Run with <code>gradlew benchmark -Pbenchmark=FuzzyFindBenchmark</code>.
+ */
+public class FuzzyFindBenchmark {
+    private static final int TASK_COUNT = 200_000;
+    private static final int ROUNDS = 5;
+    private static final int LIMIT = 10;
+    private static final String[] SEARCHES = {"reprot 4242", "chaptr", "meetnig 199999", "submt reoprt"};
+
+    public static void main(String[] args) {
+        TaskList tasks = DateQueryBenchmark.buildTasks(TASK_COUNT);
+
+        long start = System.nanoTime();
+        tasks.getClosestMatches(SEARCHES[0], LIMIT);
+        System.out.printf("first search, which builds the indexes: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            for (String search : SEARCHES) {
+                start = System.nanoTime();
+                int found = tasks.getClosestMatches(search, LIMIT).size();
+                long nanos = System.nanoTime() - start;
+                System.out.printf("round %d: \"%s\" found %d in %.2f ms%n", round, search, found, nanos / 1e6);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package chaterpillar.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.parser.Parser;
+import chaterpillar.storage.Storage;
+
+/**
+ * Measures how long it takes to load a history file of 100k tasks, both
+ * through <code>Storage.loadFromFile</code> and by parsing every line on
+ * a single thread. Run with <code>gradlew benchmark -Pbenchmark=LoadBenchmark</code>.
+ */
+public class LoadBenchmark {
+    private static final int TASK_COUNT = 100_000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Writes a history file with a mix of todos, deadlines and events,
+     * in the format <code>Storage</code> saves them in.
+     */
+    static Path writeHistory(Path dir, int taskCount) throws IOException {
+        Path path = dir.resolve("history.txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < taskCount; i++) {
+                int day = i % 28 + 1;
+                switch (i % 3) {
+                case 0:
+                    writer.write("T|false|read chapter " + i);
+                    break;
+                case 1:
+                    writer.write("D|" + (i % 2 == 0) + "|submit report " + i + "|" + day + "/Feb/2024");
+                    break;
+                default:
+                    writer.write("E|false|meeting " + i + "|" + day + "/Mar/2024 02:00 PM|"
+                            + day + "/Mar/2024 04:30 PM");
+                    break;
+                }
+                writer.write("\n");
+            }
+        }
+        return path;
+    }
+
+    public static void main(String[] args) throws IOException, ChaterpillarException {
+        Path dir = Files.createTempDirectory("chaterpillar-benchmark");
+        Path path = writeHistory(dir, TASK_COUNT);
+        List<String> lines = Files.readAllLines(path);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            int loaded = new Storage(dir.toString(), "history.txt", "history.journal.txt").loadFromFile().size();
+            long storageNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (String line : lines) {
+                Parser.parseFromFile(line);
+            }
+            long serialNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: loadFromFile %d tasks in %.1f ms, single-threaded parse in %.1f ms%n",
+                    round, loaded, storageNanos / 1e6, serialNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package chaterpillar.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import chaterpillar.datetime.DateTime;
+import chaterpillar.tasks.ParallelScan;
+import chaterpillar.tasks.TaskList;
+
+/**
+ * Measures the queries which check every task, a substring search for a
+ * keyword too short for the trigram index and <code>ColumnarTaskList.getTasksOnDate</code>,
+ * on the calling thread and split across a <code>ForkJoinPool</code>, for
+ * lists of increasing size, to find where checking in parallel starts to pay.
+ * Run with <code>gradlew benchmark -Pbenchmark=ParallelScanBenchmark</code>,
+ * adding <code>-Dchaterpillar.parallel.poolSize=N</code> to try another pool size.
+ */
+public class ParallelScanBenchmark {
+    private static final int[] SIZES = {1_000, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000};
+    private static final int ROUNDS = 20;
+    private static final String KEYWORD = "42";
+    private static final DateTime DATE = new DateTime(LocalDate.of(2024, 3, 1));
+
+    public static void main(String[] args) {
+        int poolSize = ParallelScan.getDefault().getPoolSize();
+        ParallelScan sequential = new ParallelScan(Integer.MAX_VALUE, 1);
+        ParallelScan parallel = new ParallelScan(0, poolSize);
+        System.out.printf("pool size %d%n", poolSize);
+
+        TaskList all = DateQueryBenchmark.buildTasks(SIZES[SIZES.length - 1]);
+        for (int size : SIZES) {
+            TaskList tasks = new TaskList(new ArrayList<>(all.getTasks().subList(0, size)));
+            ColumnarTaskList columns = new ColumnarTaskList(tasks);
+
+            double findSequential = timeFind(tasks, sequential);
+            double findParallel = timeFind(tasks, parallel);
+            double dateSequential = timeDate(columns, sequential);
+            double dateParallel = timeDate(columns, parallel);
+            System.out.printf("%,9d tasks: find %.3f ms -> %.3f ms (%.2fx), date %.3f ms -> %.3f ms (%.2fx)%n",
+                    size, findSequential, findParallel, findSequential / findParallel,
+                    dateSequential, dateParallel, dateSequential / dateParallel);
+        }
+    }
+
+    private static double timeFind(TaskList tasks, ParallelScan scan) {
+        tasks.setParallelScan(scan);
+        tasks.getTasksContaining(KEYWORD); // warms up
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            tasks.getTasksContaining(KEYWORD);
+        }
+        return (System.nanoTime() - start) / 1e6 / ROUNDS;
+    }
+
+    private static double timeDate(ColumnarTaskList columns, ParallelScan scan) {
+        columns.setParallelScan(scan);
+        columns.getTasksOnDate(DATE); // warms up
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            columns.getTasksOnDate(DATE);
+        }
+        return (System.nanoTime() - start) / 1e6 / ROUNDS;
+    }
+}
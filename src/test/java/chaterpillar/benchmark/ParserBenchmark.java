@@ -0,0 +1,54 @@
+package chaterpillar.benchmark;
+
+import java.lang.management.ManagementFactory;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.parser.Parser;
+
+/**
+ * Measures <code>Parser.parse</code> on a mixed corpus of commands, as typed
+ * by users, and how many bytes it allocates for each.
+ * Run with <code>gradlew benchmark -Pbenchmark=ParserBenchmark</code>.
+ */
+public class ParserBenchmark {
+    private static final String[] CORPUS = {
+        "todo read book",
+        "deadline return book /by 6-2-2024",
+        "event project meeting /from 8-2-2024 1400 /to 8-2-2024 1600",
+        "mark 2",
+        "unmark #12",
+        "delete 5",
+        "update 2 /name submit report /date 21-2-2024",
+        "update #7 /start 22-2-2024 1600 /end 22-2-2024 1800",
+        "update 3 /name read the second chapter of the book",
+        "find book",
+        "search final report",
+        "list",
+        "list page 2 size 50",
+        "due before 25-2-2024",
+        "today",
+        "more",
+    };
+    private static final int PARSES = 2_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws ChaterpillarException {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int round = 1; round <= ROUNDS; round++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            int parsed = 0;
+            for (int i = 0; i < PARSES; i++) {
+                if (Parser.parse(CORPUS[i % CORPUS.length]) != null) {
+                    parsed++;
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            System.out.printf("round %d: %.0f ns and %d bytes per parse (%d parsed)%n",
+                    round, (double) nanos / PARSES, bytes / PARSES, parsed);
+        }
+    }
+}
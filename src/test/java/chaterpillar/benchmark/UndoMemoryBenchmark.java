@@ -0,0 +1,90 @@
+package chaterpillar.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import chaterpillar.tasks.Task;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TodoTask;
+
+/**
+ * Compares the heap kept by the undo history of a <code>TaskList</code> of
+ * 100,000 tasks after 100 commands, which shares all but the changed paths
+ * of its tree between versions, with keeping a deep copy of the list before
+ * each command, the only way to undo without it. Both run the same commands.
+ * Run with <code>gradlew benchmark -Pbenchmark=UndoMemoryBenchmark</code>.
+ */
+public class UndoMemoryBenchmark {
+    private static final int TASK_COUNT = 100_000;
+    private static final int COMMAND_COUNT = TaskList.DEFAULT_HISTORY_DEPTH;
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) {
+        TaskList tasks = DateQueryBenchmark.buildTasks(TASK_COUNT);
+        tasks.getTasksWithWords("report"); // builds the indexes before measuring
+        long before = usedHeap();
+        long start = System.nanoTime();
+        for (int i = 0; i < COMMAND_COUNT; i++) {
+            tasks.beginEdit();
+            runCommand(tasks, i);
+            tasks.endEdit();
+        }
+        long persistentNanos = System.nanoTime() - start;
+        long persistentBytes = usedHeap() - before;
+
+        TaskList naive = DateQueryBenchmark.buildTasks(TASK_COUNT);
+        naive.setHistoryDepth(0);
+        naive.getTasksWithWords("report");
+        ArrayList<List<Task>> copies = new ArrayList<>();
+        before = usedHeap();
+        start = System.nanoTime();
+        for (int i = 0; i < COMMAND_COUNT; i++) {
+            copies.add(deepCopy(naive));
+            runCommand(naive, i);
+        }
+        long naiveNanos = System.nanoTime() - start;
+        long naiveBytes = usedHeap() - before;
+
+        System.out.printf("%d commands on %,d tasks%n", COMMAND_COUNT, TASK_COUNT);
+        System.out.printf("persistent history: %.2f MiB, %.3f ms per command%n",
+                persistentBytes / 1048576.0, persistentNanos / 1e6 / COMMAND_COUNT);
+        System.out.printf("deep copy per command: %.2f MiB, %.3f ms per command (%d copies kept)%n",
+                naiveBytes / 1048576.0, naiveNanos / 1e6 / COMMAND_COUNT, copies.size());
+        tasks.undo(); // keeps the history reachable until it is measured
+    }
+
+    private static void runCommand(TaskList tasks, int i) {
+        SplittableRandom random = new SplittableRandom(i);
+        int index = random.nextInt(tasks.size());
+        switch (i % 4) {
+        case 0:
+            tasks.addTask(new TodoTask("added " + i, false));
+            break;
+        case 1:
+            tasks.deleteTaskAtIndex(index);
+            break;
+        case 2:
+            tasks.updateName(index, "renamed " + i);
+            break;
+        default:
+            tasks.setMarked(index, true);
+            break;
+        }
+    }
+
+    private static List<Task> deepCopy(TaskList tasks) {
+        ArrayList<Task> copy = new ArrayList<>(tasks.size());
+        for (Task task : tasks.getTasks()) {
+            copy.add(task.copy());
+        }
+        return copy;
+    }
+}
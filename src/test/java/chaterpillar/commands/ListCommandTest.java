@@ -0,0 +1,82 @@
+package chaterpillar.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.parser.Parser;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.tasks.TodoTask;
+import chaterpillar.ui.Ui;
+
+public class ListCommandTest {
+    private static TaskList buildTasks(int count) {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= count; i++) {
+            tasks.addTask(new TodoTask("task " + i, false));
+        }
+        return tasks;
+    }
+
+    private static String run(String command, TaskList tasks, Ui ui) throws ChaterpillarException {
+        return Parser.parse(command).execute(tasks, ui, null);
+    }
+
+    @Test
+    public void execute_moreThanOnePage_morePrintsNextPage() throws ChaterpillarException {
+        TaskList tasks = buildTasks(250);
+        Ui ui = new Ui();
+
+        String first = run("list", tasks, ui);
+        assertTrue(first.contains("100. [T][ ] task 100 (#100)\n"));
+        assertTrue(first.endsWith("Showing tasks 1 to 100 of 250. Type 'more' to see the next 100.\n"));
+
+        run("more", tasks, ui);
+        String last = run("more", tasks, ui);
+        assertTrue(last.startsWith("Here are the tasks in your list: \n201. [T][ ] task 201 (#201)\n"));
+        assertTrue(last.endsWith("250. [T][ ] task 250 (#250)\n"));
+        assertThrows(ChaterpillarException.class, () -> run("more", tasks, ui));
+    }
+
+    @Test
+    public void execute_pageOfSize_onlyThatPage() throws ChaterpillarException {
+        TaskList tasks = buildTasks(5);
+        Ui ui = new Ui();
+
+        assertEquals("Here are the tasks in your list: \n3. [T][ ] task 3 (#3)\n4. [T][ ] task 4 (#4)\n"
+                + "Showing tasks 3 to 4 of 5. Type 'more' to see the next 1.\n",
+                run("list page 2 size 2", tasks, ui));
+        assertThrows(ChaterpillarException.class, () -> run("list page 4 size 2", tasks, ui));
+
+        tasks.deleteTaskAtIndex(0);
+        assertThrows(ChaterpillarException.class, () -> run("more", tasks, ui));
+    }
+
+    @Test
+    public void writeTo_wholeList_sameLinesAsPages() throws ChaterpillarException, IOException {
+        TaskList tasks = buildTasks(3);
+        StringWriter out = new StringWriter();
+        new ListCommand(tasks).writeTo(out);
+
+        assertEquals(run("list", tasks, new Ui()), out.toString());
+    }
+
+    @Test
+    public void execute_listAll_everyTaskWithoutPages() throws ChaterpillarException {
+        TaskList tasks = buildTasks(250);
+        Ui ui = new Ui(true);
+
+        run("list", tasks, ui);
+        String all = run("list all", tasks, ui);
+        assertTrue(all.startsWith("Here are the tasks in your list: \n1. [T][ ] task 1 (#1)\n"));
+        assertTrue(all.endsWith("250. [T][ ] task 250 (#250)\n"));
+        assertEquals(251, all.lines().count());
+        assertThrows(ChaterpillarException.class, () -> run("more", tasks, ui));
+    }
+}
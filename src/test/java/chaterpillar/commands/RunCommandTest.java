@@ -0,0 +1,99 @@
+package chaterpillar.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import chaterpillar.Chaterpillar;
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.parser.Parser;
+import chaterpillar.storage.DurabilityMode;
+import chaterpillar.storage.Storage;
+import chaterpillar.storage.StorageRegistry;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+public class RunCommandTest {
+    private static final String SCRIPT = "todo read book\n"
+                                         + "\n"
+                                         + "deadline return book /by 6-2-2024\n"
+                                         + "mark 5\n"
+                                         + "todo write report\n"
+                                         + "mark 1-2\n";
+
+    private static Path writeScript(Path dir) throws IOException {
+        return Files.writeString(dir.resolve("script.txt"), SCRIPT);
+    }
+
+    private static Storage newStorage(Path dir) {
+        return new Storage(dir.toString(), "history.txt", "history.journal.txt");
+    }
+
+    @Test
+    public void execute_stopAtError_laterCommandsNotRun() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        TaskList tasks = storage.loadFromFile();
+
+        String output = Parser.parse("run " + writeScript(dir)).execute(tasks, new Ui(), storage);
+
+        assertEquals(2, tasks.size());
+        assertTrue(output.startsWith("Ran 3 command(s) in "));
+        assertTrue(output.contains("with 1 error(s).\nline 4: "));
+        assertTrue(output.endsWith("Stopped at the first error."));
+        assertEquals(DurabilityMode.IMMEDIATE, storage.getDurabilityMode());
+        assertEquals(tasks.getTasks().toString(), newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    @Test
+    public void execute_continueAndSaveEvery_allCommandsRunAndSaved() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        TaskList tasks = storage.loadFromFile();
+
+        String output = Parser.parse("run " + writeScript(dir) + " /every 2 /continue")
+                .execute(tasks, new Ui(), storage);
+
+        assertEquals(3, tasks.size());
+        assertTrue(tasks.get(0).isMarked() && tasks.get(1).isMarked());
+        assertTrue(output.startsWith("Ran 5 command(s) in "));
+        assertTrue(output.contains("with 1 error(s)."));
+        assertEquals(0, storage.getPendingCount());
+        assertEquals(tasks.getTasks().toString(), newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    @Test
+    public void execute_undoInScript_onlyLastCommandUndone() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Path script = Files.writeString(dir.resolve("script.txt"), "todo a\ntodo b\nundo\n");
+        StorageRegistry registry = new StorageRegistry(dir.toString(), 1);
+
+        new Chaterpillar(registry).getResponse("alice", "run " + script);
+
+        assertEquals("[[T][ ] a]", registry.get("alice").getTasks().getTasks().toString());
+    }
+
+    @Test
+    public void run_undoAfterUpdate_taskRestored() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        TaskList tasks = storage.loadFromFile();
+        String script = "deadline return book /by 1/2/2025\n"
+                        + "update 1 /name renamed /date 2/2/2025\n"
+                        + "undo\n";
+
+        new BatchRunner(BatchRunner.SAVE_AT_END, true)
+                .run(new BufferedReader(new StringReader(script)), tasks, new Ui(true), storage);
+
+        assertEquals(1, tasks.size());
+        assertEquals("[D][ ] return book (by: 1/Feb/2025)", tasks.get(0).toString());
+        assertEquals(tasks.getTasks().toString(), newStorage(dir).loadFromFile().getTasks().toString());
+    }
+}
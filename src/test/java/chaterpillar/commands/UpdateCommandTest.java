@@ -0,0 +1,56 @@
+package chaterpillar.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.parser.Parser;
+import chaterpillar.storage.Storage;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+public class UpdateCommandTest {
+    private static Storage newStorage(Path dir) {
+        return new Storage(dir.toString(), "history.txt", "history.journal.txt");
+    }
+
+    @Test
+    public void execute_dateOfTodo_nothingUpdated() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        TaskList tasks = storage.loadFromFile();
+        Parser.parse("todo read book").execute(tasks, new Ui(true), storage);
+
+        Command update = Parser.parse("update 1 /name new name /date 3/10/2026");
+        assertThrows(ChaterpillarException.class, () -> update.execute(tasks, new Ui(true), storage));
+
+        assertEquals("[T][ ] read book", tasks.get(0).toString());
+        assertEquals(tasks.getTasks().toString(), newStorage(dir).loadFromFile().getTasks().toString());
+        // the todo added is the only change to undo
+        assertTrue(tasks.undo());
+        assertFalse(tasks.undo());
+    }
+
+    @Test
+    public void execute_nameAndDate_updatedTogether() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        TaskList tasks = storage.loadFromFile();
+        Parser.parse("deadline return book /by 1/2/2025").execute(tasks, new Ui(true), storage);
+
+        Parser.parse("update 1 /name renamed /date 2/2/2025").execute(tasks, new Ui(true), storage);
+
+        assertEquals("[D][ ] renamed (by: 2/Feb/2025)", tasks.get(0).toString());
+        assertEquals(tasks.getTasks().toString(), newStorage(dir).loadFromFile().getTasks().toString());
+        tasks.undo();
+        assertEquals("[D][ ] return book (by: 1/Feb/2025)", tasks.get(0).toString());
+    }
+}
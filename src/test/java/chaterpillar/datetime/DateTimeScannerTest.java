@@ -0,0 +1,125 @@
+package chaterpillar.datetime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+
+import org.junit.jupiter.api.Test;
+
+public class DateTimeScannerTest {
+    private static final int DEFAULT_YEAR = 2024;
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    private static final String[] DAYS = {"1", "9", "09", "29", "30", "31", "0", "32", "-1", "-0"};
+    private static final String[] MONTHS = {"2", "02", "4", "12", "13", "0", "Feb", "February", "feb",
+        "Sep", "Sept", "September", "Apr", "April", "FEB"};
+    private static final String[] YEARS = {"", "2024", "2023", "2100", "24", "02024", "+20245", "+2024",
+        "-2024", "-0000", "0000"};
+    private static final String[] SEPARATORS = {"/", "-", " "};
+    private static final String[] TIMES = {"", "1400", "2400", "2401", "0930", "930", "2 PM", "12 AM",
+        "0 AM", "13 PM", "2:30 PM", "12:60 PM", "14:00", "2 pm"};
+    private static final String[] OTHERS = {"1400", "2400", "14:00", "2:30 PM", "2 PM", "12 AM", "0 PM",
+        "invalid date time format", "9/Feb/2024 02:00 PM", "9/2/2024 1400 1400", "9 2 2024 1400",
+        "6-2-2024", "8-2-2024 1400", "3 Apr 2025", "1/1", "/", "9/", "9//2", "2 PM 2 PM"};
+
+    @Test
+    public void scan_sameAsFormatter_success() {
+        DateTimeFormatter formatter = buildFormatter();
+        int count = 0;
+        for (String day : DAYS) {
+            for (String month : MONTHS) {
+                for (String separator : SEPARATORS) {
+                    for (String year : YEARS) {
+                        for (String time : TIMES) {
+                            String text = day + separator + month
+                                    + (year.isEmpty() ? "" : separator + year)
+                                    + (time.isEmpty() ? "" : " " + time);
+                            assertSameAsFormatter(formatter, text);
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        for (String text : OTHERS) {
+            assertSameAsFormatter(formatter, text);
+        }
+        assertTrue(count > 0);
+    }
+
+    @Test
+    public void scan_dayPastEndOfMonth_lastDayOfMonth() {
+        long scanned = DateTimeScanner.scan("31/4/2024", DEFAULT_YEAR);
+        assertEquals(LocalDate.of(2024, 4, 30).toEpochDay() * MINUTES_PER_DAY,
+                DateTimeScanner.unpackEpochMinute(scanned));
+        assertTrue(DateTimeScanner.unpackHasOnlyDate(scanned));
+    }
+
+    @Test
+    public void scan_invalidInput_failed() {
+        assertEquals(DateTimeScanner.FAILED, DateTimeScanner.scan("invalid date time format", DEFAULT_YEAR));
+        assertEquals(DateTimeScanner.FAILED, DateTimeScanner.scan("32/1/2024", DEFAULT_YEAR));
+        assertFalse(DateTimeScanner.scan("9/2/2024 1400", DEFAULT_YEAR) == DateTimeScanner.FAILED);
+    }
+
+    private static void assertSameAsFormatter(DateTimeFormatter formatter, String text) {
+        assertEquals(describe(parseWithFormatter(formatter, text)),
+                describe(DateTimeScanner.scan(text, DEFAULT_YEAR)), text);
+    }
+
+    private static String describe(long scanned) {
+        if (scanned == DateTimeScanner.FAILED) {
+            return "FAILED";
+        }
+        long epochMinute = DateTimeScanner.unpackEpochMinute(scanned);
+        LocalDateTime dateTime = LocalDateTime.of(
+                LocalDate.ofEpochDay(Math.floorDiv(epochMinute, MINUTES_PER_DAY)),
+                LocalTime.ofSecondOfDay(Math.floorMod(epochMinute, MINUTES_PER_DAY) * 60));
+        return dateTime + (DateTimeScanner.unpackHasOnlyDate(scanned) ? " (date only)" : "");
+    }
+
+    /**
+     * Parses the string the way <code>DateTime</code> did before it had its own scanner.
+     */
+    private static long parseWithFormatter(DateTimeFormatter formatter, String text) {
+        TemporalAccessor parsed;
+        try {
+            parsed = formatter.parseBest(text, LocalDateTime::from,
+                    LocalDate::from, LocalTime::from, YearMonth::from);
+        } catch (DateTimeParseException e) {
+            return DateTimeScanner.FAILED;
+        }
+        if (parsed instanceof LocalDate) {
+            return DateTimeScanner.pack(((LocalDate) parsed).toEpochDay() * MINUTES_PER_DAY, true);
+        } else if (parsed instanceof LocalTime) {
+            return DateTimeScanner.pack(toEpochMinute(((LocalTime) parsed).atDate(LocalDate.now())), false);
+        } else if (parsed instanceof YearMonth) {
+            return DateTimeScanner.pack(((YearMonth) parsed).atDay(1).toEpochDay() * MINUTES_PER_DAY, true);
+        } else {
+            return DateTimeScanner.pack(toEpochMinute((LocalDateTime) parsed), false);
+        }
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime.toLocalDate().toEpochDay() * MINUTES_PER_DAY
+                + dateTime.getHour() * 60 + dateTime.getMinute();
+    }
+
+    private static DateTimeFormatter buildFormatter() {
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+        for (String pattern : DateTimeScanner.PATTERNS) {
+            builder.appendPattern("[" + pattern + "]");
+        }
+        return builder.parseDefaulting(ChronoField.YEAR, DEFAULT_YEAR).toFormatter();
+    }
+}
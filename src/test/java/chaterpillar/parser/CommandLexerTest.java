@@ -0,0 +1,54 @@
+package chaterpillar.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class CommandLexerTest {
+    @Test
+    public void lex_flags_valuesUpToNextFlag() {
+        CommandLexer lexer = new CommandLexer("event project  meeting /from 8/2/2024 1400 /to  8/2/2024 1600 ");
+
+        assertEquals("event", lexer.getCommandWord());
+        assertEquals("project  meeting", lexer.getTextFrom(0));
+        assertEquals("8/2/2024 1400", lexer.getFlag("from"));
+        assertEquals("8/2/2024 1600", lexer.getFlag("to"));
+        assertNull(lexer.getFlag("by"));
+    }
+
+    @Test
+    public void lex_slashesInWords_notFlags() {
+        CommandLexer lexer = new CommandLexer("run /tmp/my scripts/to do.txt /every 5 /continue");
+
+        assertEquals("/tmp/my scripts/to do.txt", lexer.getTextFrom(0));
+        assertEquals("5", lexer.getFlag("every"));
+        assertTrue(lexer.hasFlag("continue"));
+        assertEquals("", lexer.getFlag("continue"));
+    }
+
+    @Test
+    public void lex_arguments_wordsBeforeFirstFlag() {
+        CommandLexer lexer = new CommandLexer("update #12 /name read the book /date 6-2-2024");
+
+        assertEquals(1, lexer.getArgCount());
+        assertEquals("#12", lexer.getArg(0));
+        assertEquals("read the book", lexer.getFlag("name"));
+        assertEquals("6-2-2024", lexer.getFlag("date"));
+        assertFalse(lexer.hasFlag("start"));
+        assertThrows(IndexOutOfBoundsException.class, () -> lexer.getArg(1));
+    }
+
+    @Test
+    public void lex_commandWordOnly_emptyParts() {
+        CommandLexer lexer = new CommandLexer("list");
+
+        assertEquals("list", lexer.getCommandWord());
+        assertEquals(0, lexer.getArgCount());
+        assertEquals("", lexer.getRest());
+        assertEquals("", lexer.getTextFrom(0));
+    }
+}
@@ -7,7 +7,12 @@ import org.junit.jupiter.api.Test;
 import chaterpillar.commands.ExitCommand;
 import chaterpillar.commands.HelpCommand;
 import chaterpillar.commands.ListAllCommand;
+import chaterpillar.commands.MoreCommand;
+import chaterpillar.commands.RedoCommand;
+import chaterpillar.commands.TasksDueBeforeCommand;
+import chaterpillar.commands.TasksDueBetweenCommand;
 import chaterpillar.commands.TasksTodayCommand;
+import chaterpillar.commands.UndoCommand;
 import chaterpillar.commands.UnrecognisedCommand;
 import chaterpillar.exceptions.ChaterpillarException;
 public class ParserTest {
@@ -15,7 +20,13 @@ public class ParserTest {
     public void parse_validInputs_success() throws ChaterpillarException {
         // correct classes being called
         assertEquals(ListAllCommand.class, Parser.parse("list").getClass());
+        assertEquals(ListAllCommand.class, Parser.parse("list page 2 size 20").getClass());
+        assertEquals(MoreCommand.class, Parser.parse("more").getClass());
+        assertEquals(UndoCommand.class, Parser.parse("undo").getClass());
+        assertEquals(RedoCommand.class, Parser.parse("redo").getClass());
         assertEquals(TasksTodayCommand.class, Parser.parse("today").getClass());
+        assertEquals(TasksDueBeforeCommand.class, Parser.parse("due before 25-2-2024").getClass());
+        assertEquals(TasksDueBetweenCommand.class, Parser.parse("due between 20 Feb and 29 Feb").getClass());
         assertEquals(HelpCommand.class, Parser.parse("help").getClass());
         assertEquals(ExitCommand.class, Parser.parse("bye").getClass());
         assertEquals(UnrecognisedCommand.class, Parser.parse("funny text").getClass());
@@ -0,0 +1,462 @@
+package chaterpillar.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import chaterpillar.exceptions.ChaterpillarException;
+import chaterpillar.parser.Parser;
+import chaterpillar.tasks.Task;
+import chaterpillar.tasks.TaskList;
+import chaterpillar.ui.Ui;
+
+public class StorageTest {
+    private static final String[] COMMANDS = {
+        "todo read book",
+        "deadline return book /by 6-2-2024",
+        "event project meeting /from 8-2-2024 1400 /to 8-2-2024 1600",
+        "mark 2",
+        "delete 1",
+        "update 2 /name team meeting"
+    };
+
+    private static String run(Storage storage) throws ChaterpillarException {
+        TaskList tasks = storage.loadFromFile();
+        for (String command : COMMANDS) {
+            Parser.parse(command).execute(tasks, new Ui(), storage);
+        }
+        return tasks.getTasks().toString();
+    }
+
+    private static Storage newStorage(Path dir) {
+        return newStorage(dir, "history");
+    }
+
+    private static Storage newStorage(Path dir, String id) {
+        return new Storage(dir.toString(), id + ".txt", id + ".journal.txt");
+    }
+
+    @Test
+    public void loadFromFile_journalReplayed_sameTasks() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        String expected = run(newStorage(dir));
+
+        assertEquals(0, Files.size(dir.resolve("history.txt")));
+        assertEquals(expected, newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    @Test
+    public void loadFromFile_randomCommandsReplayed_sameAsInMemory() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        TaskList tasks = storage.loadFromFile();
+        Random random = new Random(1);
+        String[] commands = {
+            "todo task %d",
+            "deadline task %d /by %d-3-2024",
+            "event task %d /from %d-3-2024 0900 /to 28-3-2024 1000",
+            "mark %2$d",
+            "unmark %2$d",
+            "update %2$d /name renamed %1$d",
+            "update %2$d /date %2$d-4-2024",
+            "update %2$d /name renamed %1$d /start %2$d-4-2024",
+            "delete %2$d"
+        };
+
+        for (int i = 1; i <= 300; i++) {
+            String command = String.format(commands[random.nextInt(commands.length)],
+                    i, 1 + random.nextInt(Math.max(1, Math.min(tasks.size(), 27))));
+            try {
+                Parser.parse(command).execute(tasks, new Ui(true), storage);
+            } catch (ChaterpillarException e) {
+                // such as a date given to a todo, which must leave the list as it was
+            }
+            if (i % 50 == 0) {
+                assertEquals(tasks.getTasks().toString(), newStorage(dir).loadFromFile().getTasks().toString(),
+                        "after " + command);
+            }
+        }
+    }
+
+    @Test
+    public void convertTo_binaryAndBack_sameTasks() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        String expected = run(storage);
+
+        storage.convertTo(StorageFormat.BINARY, storage.loadFromFile());
+        Storage reloaded = newStorage(dir);
+        assertEquals(expected, reloaded.loadFromFile().getTasks().toString());
+        assertEquals(StorageFormat.BINARY, reloaded.getFormat());
+
+        reloaded.convertTo(StorageFormat.TEXT, reloaded.loadFromFile());
+        assertEquals(expected, newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    @Test
+    public void convertTo_binaryAndBack_headerAndIdsKept() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        run(storage);
+        TaskList tasks = storage.loadFromFile();
+        List<Long> ids = tasks.getTasks().stream().map(Task::getId).toList();
+
+        storage.convertTo(StorageFormat.BINARY, tasks);
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(dir.resolve("history.txt")));
+        byte[] magic = new byte[BinaryTaskCodec.MAGIC.length];
+        header.get(magic);
+        assertArrayEquals(BinaryTaskCodec.MAGIC, magic);
+        assertEquals(BinaryTaskCodec.VERSION, header.get());
+        assertEquals(1, header.getLong());
+        assertEquals(ids.size(), header.getInt());
+
+        TaskList binary = newStorage(dir).loadFromFile();
+        assertEquals(ids, binary.getTasks().stream().map(Task::getId).toList());
+        storage.convertTo(StorageFormat.TEXT, binary);
+        assertTrue(Files.readString(dir.resolve("history.txt")).startsWith(Storage.GENERATION_PREFIX + "2\n"));
+        TaskList text = newStorage(dir).loadFromFile();
+        assertEquals(ids, text.getTasks().stream().map(Task::getId).toList());
+        assertEquals(tasks.getTasks().toString(), text.getTasks().toString());
+    }
+
+    @Test
+    public void loadFromFile_badMagicOrVersion_exceptionThrown() throws IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Path history = dir.resolve("history.txt");
+
+        Files.write(history, new byte[] {'C', 'H', 'T', 'X', BinaryTaskCodec.VERSION, 0, 0, 0, 0});
+        assertThrows(ChaterpillarException.class, () -> newStorage(dir).loadFromFile());
+        Files.write(history, new byte[] {'C', 'H', 'T', 'P', BinaryTaskCodec.VERSION + 1, 0, 0, 0, 0});
+        assertThrows(ChaterpillarException.class, () -> newStorage(dir).loadFromFile());
+        Files.write(history, new byte[] {'C', 'H', 'T', 'P', 0, 0, 0, 0, 0});
+        assertThrows(ChaterpillarException.class, () -> newStorage(dir).loadFromFile());
+    }
+
+    @Test
+    public void loadFromFile_journalOlderThanSnapshot_notReplayed() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        String expected = run(storage);
+        byte[] oldJournal = Files.readAllBytes(dir.resolve("history.journal.txt"));
+        storage.saveAllToFile(storage.loadFromFile());
+
+        // as if the application stopped after saving the snapshot but before clearing the journal
+        Files.write(dir.resolve("history.journal.txt"), oldJournal);
+        assertEquals(expected, newStorage(dir).loadFromFile().getTasks().toString());
+
+        storage.convertTo(StorageFormat.BINARY, storage.loadFromFile());
+        Files.write(dir.resolve("history.journal.txt"), oldJournal);
+        assertEquals(expected, newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    @Test
+    public void loadFromFile_idsReferencedAfterDelete_idsKept() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        TaskList tasks = storage.loadFromFile();
+        for (String command : new String[] {"todo first", "todo second", "todo third", "delete #1", "mark #3"}) {
+            Parser.parse(command).execute(tasks, new Ui(), storage);
+        }
+        storage.convertTo(StorageFormat.BINARY, tasks);
+
+        TaskList reloaded = newStorage(dir).loadFromFile();
+        assertEquals(2, reloaded.size());
+        assertEquals(2, reloaded.get(0).getId());
+        assertEquals(1, reloaded.getIndexOfId(3));
+        assertEquals(true, reloaded.get(1).isMarked());
+    }
+
+    @Test
+    public void loadFromFile_bulkCommandsReplayed_sameTasks() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        TaskList tasks = storage.loadFromFile();
+        for (int i = 1; i <= 12; i++) {
+            Parser.parse("deadline task " + i + " /by " + i + "-2-2024").execute(tasks, new Ui(), storage);
+        }
+        String[] commands = {"mark 1-5", "delete 3,7,9-11", "unmark 2, 4", "mark all done-by 5-2-2024"};
+        for (String command : commands) {
+            Parser.parse(command).execute(tasks, new Ui(), storage);
+        }
+
+        assertEquals(7, tasks.size());
+        assertEquals("[1, 2, 4, 5, 6, 8, 12]", tasks.getTasks().stream()
+                .map(task -> task.getTaskName().substring(5)).toList().toString());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(i < 4, tasks.get(i).isMarked());
+        }
+        assertEquals(tasks.getTasks().toString(), newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    @Test
+    public void sync_batched_queuedRecordsWritten() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        storage.setFlushIntervalMillis(60_000);
+        storage.setDurabilityMode(DurabilityMode.BATCHED);
+        String expected = run(storage);
+
+        assertEquals(COMMANDS.length, storage.getPendingCount());
+        assertEquals("[]", newStorage(dir).loadFromFile().getTasks().toString());
+        storage.sync();
+        assertEquals(0, storage.getPendingCount());
+        assertEquals(expected, newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    @Test
+    public void appendAdd_batched_writtenInBackground() throws ChaterpillarException, IOException,
+            InterruptedException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        storage.setFlushIntervalMillis(1);
+        storage.setDurabilityMode(DurabilityMode.BATCHED);
+        String expected = run(storage);
+
+        for (int i = 0; i < 500 && storage.getPendingCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, storage.getPendingCount());
+        assertEquals(expected, newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    @Test
+    public void setDurabilityMode_onExitToImmediate_queuedRecordsWritten() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        storage.setDurabilityMode(DurabilityMode.ON_EXIT);
+        String expected = run(storage);
+        assertEquals(COMMANDS.length, storage.getPendingCount());
+
+        storage.setDurabilityMode(DurabilityMode.IMMEDIATE);
+        assertEquals(0, storage.getPendingCount());
+        assertEquals(expected, newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    @Test
+    public void close_onExit_queuedRecordsWritten() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        storage.setDurabilityMode(DurabilityMode.ON_EXIT);
+        String expected = run(storage);
+
+        storage.close();
+        assertEquals(0, storage.getPendingCount());
+        assertEquals(expected, newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    @Test
+    public void sync_onExitPastCompactionThreshold_compactedOnlyAtSync() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        TaskList tasks = storage.loadFromFile();
+        storage.setDurabilityMode(DurabilityMode.ON_EXIT);
+
+        for (int i = 1; i <= Storage.COMPACTION_THRESHOLD + 100; i++) {
+            Parser.parse("todo task " + i).execute(tasks, new Ui(true), storage);
+        }
+        assertEquals(0, Files.size(dir.resolve("history.txt")));
+        assertEquals(Storage.COMPACTION_THRESHOLD + 100, storage.getPendingCount());
+
+        storage.sync();
+        assertEquals(0, storage.getPendingCount());
+        assertEquals(1, Files.readAllLines(dir.resolve("history.journal.txt")).size());
+        assertEquals(tasks.getTasks().toString(), newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    @Test
+    public void loadFromFile_commandsFromTwoThreads_sameTasks()
+            throws ChaterpillarException, IOException, InterruptedException, ExecutionException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Storage storage = newStorage(dir);
+        TaskList tasks = storage.loadFromFile();
+        storage.setFlushIntervalMillis(1);
+        storage.setDurabilityMode(DurabilityMode.BATCHED);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Void>> results = executor.invokeAll(List.of(
+                    addAndDelete("alice", tasks, storage), addAndDelete("bob", tasks, storage)));
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        storage.sync();
+
+        assertEquals(tasks.getTasks().toString(), newStorage(dir).loadFromFile().getTasks().toString());
+    }
+
+    /**
+     * Adds tasks and deletes the first one after every third added, enough for the journal to be compacted.
+     */
+    private static Callable<Void> addAndDelete(String name, TaskList tasks, Storage storage) {
+        return () -> {
+            for (int i = 1; i <= 300; i++) {
+                runEdit("todo " + name + "'s task " + i, tasks, storage);
+                if (i % 3 == 0) {
+                    runEdit("delete 1", tasks, storage);
+                }
+            }
+            return null;
+        };
+    }
+
+    private static void runEdit(String command, TaskList tasks, Storage storage) throws ChaterpillarException {
+        Parser.parse(command).executeAsEdit(tasks, new Ui(true), storage);
+    }
+
+    @Test
+    public void loadFromFile_largeFileWithCrlf_tasksInFileOrder() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        int count = writeLargeHistory(dir, -1);
+
+        TaskList tasks = newStorage(dir).loadFromFile();
+        assertEquals(count, tasks.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i + 1, tasks.get(i).getId());
+            assertEquals("[T][ ] task " + (i + 1), tasks.get(i).toString());
+        }
+    }
+
+    @Test
+    public void loadFromFile_largeFileWithMalformedLine_lineReported() throws IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        int count = writeLargeHistory(dir, 30000);
+        assertTrue(count > 30000);
+
+        ChaterpillarException e = assertThrows(ChaterpillarException.class,
+                () -> newStorage(dir).loadFromFile());
+        assertTrue(e.getMessage().endsWith("\n30000|Q|false|task 30000"), e.getMessage());
+    }
+
+    /**
+     * Writes a history file large enough to be loaded in parallel chunks, with a
+     * generation line and CRLF line endings. The task with id <code>malformedId</code>, if any,
+     * has an unknown type.
+     *
+     * @return number of tasks in the file.
+     */
+    private static int writeLargeHistory(Path dir, int malformedId) throws IOException {
+        StringBuilder history = new StringBuilder(Storage.GENERATION_PREFIX + "3\r\n");
+        int count = 0;
+        while (history.length() < 2 * MappedHistoryLoader.PARALLEL_LOAD_THRESHOLD) {
+            count++;
+            String type = count == malformedId ? "Q" : "T";
+            history.append(count).append('|').append(type).append("|false|task ").append(count).append("\r\n");
+        }
+        Files.writeString(dir.resolve("history.txt"), history);
+        Files.writeString(dir.resolve("history.journal.txt"), Storage.GENERATION_PREFIX + "3\n");
+        return count;
+    }
+
+    @Test
+    public void loadFromFile_linesWithoutIds_idsGiven() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        Files.writeString(dir.resolve("history.txt"), "T|false|read book\nT|true|return book\n");
+
+        TaskList tasks = newStorage(dir).loadFromFile();
+        assertEquals(1, tasks.get(0).getId());
+        assertEquals(2, tasks.get(1).getId());
+        assertEquals("[T][X] return book", tasks.get(1).toString());
+    }
+
+    @Test
+    public void get_moreListsThanCapacity_leastRecentlyUsedEvicted() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        StorageRegistry registry = new StorageRegistry(dir.toString(), 2);
+
+        StorageRegistry.Entry alice = registry.get("alice");
+        alice.getStorage().setDurabilityMode(DurabilityMode.ON_EXIT);
+        Parser.parse("todo alice's task").execute(alice.getTasks(), new Ui(), alice.getStorage());
+        registry.release(alice);
+        registry.release(registry.get("bob"));
+        assertSame(alice, registry.get("alice"));
+        registry.release(alice);
+        registry.release(registry.get("carol")); // evicts bob
+        registry.release(registry.get("dave")); // evicts alice, which must be saved first
+
+        assertEquals(1, registry.get("alice").getTasks().size());
+        assertEquals(1, registry.getHits());
+        assertEquals(5, registry.getMisses());
+        assertEquals(3, registry.getEvictions());
+    }
+
+    @Test
+    public void get_entryInUseOrUnsaved_notEvicted() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        StorageRegistry registry = new StorageRegistry(dir.toString(), 1);
+
+        StorageRegistry.Entry alice = registry.get("alice");
+        alice.getStorage().setDurabilityMode(DurabilityMode.ON_EXIT);
+        Parser.parse("todo alice's task").execute(alice.getTasks(), new Ui(), alice.getStorage());
+        StorageRegistry.Entry bob = registry.get("bob");
+        assertEquals(2, registry.getResidentCount());
+
+        // alice's journal cannot be written, so she cannot be saved when she is evicted
+        Path journal = dir.resolve("alice.journal.txt");
+        Files.delete(journal);
+        Files.createDirectory(journal);
+        registry.release(alice);
+        assertEquals(2, registry.getResidentCount());
+        assertEquals(1, alice.getStorage().getPendingCount());
+
+        Files.delete(journal);
+        registry.release(bob);
+        assertEquals(1, registry.getResidentCount());
+        assertEquals(1, registry.getEvictions());
+        assertEquals(1, newStorage(dir, "alice").loadFromFile().size());
+    }
+
+    @Test
+    public void get_sameIdFromManyThreads_loadedOnce() throws Exception {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        int count = writeLargeHistory(dir, -1);
+        StorageRegistry registry = new StorageRegistry(dir.toString(), StorageRegistry.DEFAULT_CAPACITY);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<StorageRegistry.Entry>> entries = executor.invokeAll(
+                    Collections.nCopies(8, () -> registry.get("history")));
+            StorageRegistry.Entry first = entries.get(0).get();
+            for (Future<StorageRegistry.Entry> entry : entries) {
+                assertSame(first, entry.get());
+            }
+            assertEquals(count, first.getTasks().size());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, registry.getMisses());
+        assertEquals(7, registry.getHits());
+    }
+
+    @Test
+    public void get_loadFailed_loadedAgainNextTime() throws ChaterpillarException, IOException {
+        Path dir = Files.createTempDirectory("chaterpillar");
+        writeLargeHistory(dir, 5);
+        StorageRegistry registry = new StorageRegistry(dir.toString(), StorageRegistry.DEFAULT_CAPACITY);
+        assertThrows(ChaterpillarException.class, () -> registry.get("history"));
+        assertEquals(0, registry.getResidentCount());
+
+        int count = writeLargeHistory(dir, -1);
+        assertEquals(count, registry.get("history").getTasks().size());
+        assertEquals(2, registry.getMisses());
+    }
+}
@@ -0,0 +1,499 @@
+package chaterpillar.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import chaterpillar.benchmark.ColumnarTaskList;
+import chaterpillar.datetime.DateTime;
+import chaterpillar.exceptions.ChaterpillarException;
+
+public class TaskListTest {
+    private static final long MINUTES_PER_DAY = 24 * 60;
+    private static final long FIRST_DAY = LocalDate.of(2024, 2, 1).toEpochDay();
+    private static final int DAYS = 40;
+
+    @Test
+    public void getTasksOnDate_afterChanges_sameAsScan() throws ChaterpillarException {
+        Random random = new Random(42);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 300; i++) {
+            tasks.addTask(randomTask(random, i));
+        }
+        for (int i = 0; i < 600; i++) {
+            int index = random.nextInt(tasks.size());
+            switch (random.nextInt(5)) {
+            case 0:
+                tasks.addTask(randomTask(random, i));
+                break;
+            case 1:
+                tasks.deleteTaskAtIndex(index);
+                break;
+            case 2:
+                tasks.setTaskAtIndex(index, randomTask(random, i));
+                break;
+            case 3:
+                if (tasks.get(index) instanceof EventTask) {
+                    tasks.updateStartDate(index, randomDay(random).toString());
+                }
+                break;
+            default:
+                if (tasks.get(index) instanceof EventTask) {
+                    tasks.updateEndDate(index, randomDay(random).toString());
+                }
+                break;
+            }
+            if (i % 50 == 0) {
+                assertSameAsScan(tasks);
+            }
+        }
+        assertSameAsScan(tasks);
+    }
+
+    @Test
+    public void updateStartDate_invalidDate_indexUnchanged() {
+        TaskList tasks = new TaskList();
+        DateTime day = new DateTime(FIRST_DAY * MINUTES_PER_DAY, true);
+        tasks.addTask(new EventTask("meeting", false, day, day));
+        try {
+            tasks.updateStartDate(0, "invalid date");
+        } catch (ChaterpillarException e) {
+            // expected
+        }
+        assertEquals(1, tasks.getTasksOnDate(day).size());
+    }
+
+    @Test
+    public void getDeadlinesBetween_range_sortedByDate() {
+        TaskList tasks = new TaskList();
+        DeadlineTask late = new DeadlineTask("late", false, new DateTime((FIRST_DAY + 5) * MINUTES_PER_DAY, true));
+        DeadlineTask early = new DeadlineTask("early", false, new DateTime(FIRST_DAY * MINUTES_PER_DAY, true));
+        DeadlineTask outside = new DeadlineTask("outside", false,
+                new DateTime((FIRST_DAY + 9) * MINUTES_PER_DAY, true));
+        tasks.addTask(late);
+        tasks.addTask(outside);
+        tasks.addTask(early);
+
+        List<Task> found = tasks.getDeadlinesBetween(new DateTime(FIRST_DAY * MINUTES_PER_DAY, true),
+                new DateTime((FIRST_DAY + 8) * MINUTES_PER_DAY, false)).getTasks();
+        assertEquals(2, found.size());
+        assertEquals(early, found.get(0));
+        assertEquals(late, found.get(1));
+        assertEquals(3, tasks.getTasksOnDate(new DateTime((FIRST_DAY + 5) * MINUTES_PER_DAY, true)).size()
+                + tasks.getTasksOnDate(new DateTime(FIRST_DAY * MINUTES_PER_DAY, true)).size()
+                + tasks.getTasksOnDate(new DateTime((FIRST_DAY + 9) * MINUTES_PER_DAY, true)).size());
+    }
+
+    private static void assertSameAsScan(TaskList tasks) {
+        for (long day = FIRST_DAY - 1; day <= FIRST_DAY + DAYS + 1; day++) {
+            DateTime date = new DateTime(day * MINUTES_PER_DAY, true);
+            ArrayList<Task> expected = new ArrayList<>();
+            for (Task task : tasks.getTasks()) {
+                if (task.getHasDate() && task.isWithinDate(date)) {
+                    expected.add(task);
+                }
+            }
+            assertEquals(expected, tasks.getTasksOnDate(date).getTasks(), date.toString());
+
+            ArrayList<Task> expectedBefore = new ArrayList<>();
+            for (long dueDay = FIRST_DAY - 1; dueDay < day; dueDay++) {
+                for (Task task : tasks.getTasks()) {
+                    if (task instanceof DeadlineTask
+                            && ((DeadlineTask) task).getDateTime().toEpochDay() == dueDay) {
+                        expectedBefore.add(task);
+                    }
+                }
+            }
+            assertEquals(expectedBefore, tasks.getDeadlinesBefore(date).getTasks(), "before " + date);
+        }
+    }
+
+    private static DateTime randomDay(Random random) {
+        long day = FIRST_DAY + random.nextInt(DAYS);
+        return new DateTime(day * MINUTES_PER_DAY + random.nextInt(24) * 60, random.nextBoolean());
+    }
+
+    private static Task randomTask(Random random, int i) {
+        switch (random.nextInt(3)) {
+        case 0:
+            return new TodoTask("todo " + i, false);
+        case 1:
+            return new DeadlineTask("deadline " + i, false, randomDay(random));
+        default:
+            DateTime from = randomDay(random);
+            // now and then the end is before the start
+            DateTime to = random.nextInt(5) == 0 ? randomDay(random)
+                    : new DateTime(from.toEpochMinute() + random.nextInt(5 * 24 * 60), false);
+            return new EventTask("event " + i, false, from, to);
+        }
+    }
+
+    @Test
+    public void getTasksWithWords_afterRename_matchesAllWordsIgnoringCase() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new TodoTask("submit Final Report", false));
+        tasks.addTask(new TodoTask("read report", false));
+        tasks.addTask(new TodoTask("final exam", false));
+
+        assertEquals(1, tasks.getTasksWithWords("report final").size());
+        assertEquals(2, tasks.getTasksWithWords("REPORT").size());
+        assertEquals(0, tasks.getTasksWithWords("rep").size());
+
+        tasks.updateName(1, "read final report");
+        List<Task> found = tasks.getTasksWithWords("final report").getTasks();
+        assertEquals(2, found.size());
+        assertEquals(tasks.get(0), found.get(0));
+        assertEquals(tasks.get(1), found.get(1));
+        assertEquals(0, tasks.getTasksWithWords("read report exam").size());
+    }
+
+    @Test
+    public void getTasksContaining_afterChanges_sameAsScan() {
+        Random random = new Random(7);
+        String[] words = {"read", "Read", "book", "booking", "report", "re", "a", "CS2103", "ab", "aaa"};
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 500; i++) {
+            tasks.addTask(new TodoTask(randomName(random, words), false));
+            if (i % 7 == 6) {
+                tasks.deleteTaskAtIndex(random.nextInt(tasks.size()));
+            }
+            if (i % 5 == 0) {
+                tasks.updateName(random.nextInt(tasks.size()), randomName(random, words));
+            }
+            if (i % 100 == 0) {
+                assertContainingSameAsScan(tasks, words);
+            }
+        }
+        assertContainingSameAsScan(tasks, words);
+    }
+
+    @Test
+    public void getTasksContaining_parallelScan_sameOrderAsScan() {
+        Random random = new Random(5);
+        String[] words = {"read", "book", "report", "re", "a", "ab"};
+        ArrayList<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            initial.add(randomTask(random, i));
+            initial.add(new TodoTask(randomName(random, words), false));
+        }
+        TaskList tasks = new TaskList(initial);
+        tasks.setParallelScan(new ParallelScan(0, 4));
+        for (int i = 0; i < 100; i++) {
+            tasks.deleteTaskAtIndex(random.nextInt(tasks.size()));
+        }
+        assertContainingSameAsScan(tasks, words);
+
+        ColumnarTaskList columns = new ColumnarTaskList(tasks);
+        ColumnarTaskList parallelColumns = new ColumnarTaskList(tasks);
+        columns.setParallelScan(new ParallelScan(Integer.MAX_VALUE, 1));
+        parallelColumns.setParallelScan(new ParallelScan(0, 4));
+        for (long day = FIRST_DAY; day <= FIRST_DAY + DAYS; day += 7) {
+            DateTime date = new DateTime(day * MINUTES_PER_DAY, true);
+            assertEquals(columns.getTasksOnDate(date).getTasks().toString(),
+                    parallelColumns.getTasksOnDate(date).getTasks().toString(), date.toString());
+        }
+    }
+
+    private static void assertContainingSameAsScan(TaskList tasks, String[] words) {
+        String[] keywords = {"read", "Read", "ead b", "book", "ooking", "a", "re", "aaaa", "CS2", "xyz", " "};
+        for (String keyword : keywords) {
+            ArrayList<Task> expected = new ArrayList<>();
+            for (Task task : tasks.getTasks()) {
+                if (task.containsInName(keyword)) {
+                    expected.add(task);
+                }
+            }
+            assertEquals(expected, tasks.getTasksContaining(keyword).getTasks(), keyword);
+        }
+    }
+
+    private static String randomName(Random random, String[] words) {
+        StringBuilder name = new StringBuilder(words[random.nextInt(words.length)]);
+        for (int i = random.nextInt(3); i > 0; i--) {
+            name.append(' ').append(words[random.nextInt(words.length)]);
+        }
+        return name.toString();
+    }
+
+    @Test
+    public void getClosestMatches_typos_closestFirst() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new TodoTask("submit final report", false));
+        tasks.addTask(new TodoTask("read report", false));
+        tasks.addTask(new TodoTask("final exam", false));
+
+        ArrayList<FuzzyMatch> matches = tasks.getClosestMatches("finel reprot", 10);
+        assertEquals(1, matches.size());
+        assertEquals(tasks.get(0), matches.get(0).getTask());
+        assertEquals(3, matches.get(0).getDistance());
+
+        matches = tasks.getClosestMatches("REPORT", 10);
+        assertEquals(2, matches.size());
+        assertEquals(0, matches.get(0).getDistance());
+        assertEquals(1, tasks.getClosestMatches("report", 1).size());
+
+        tasks.updateName(2, "final repot");
+        matches = tasks.getClosestMatches("report", 10);
+        assertEquals(3, matches.size());
+        assertEquals(tasks.get(2), matches.get(2).getTask());
+        assertEquals(1, matches.get(2).getDistance());
+    }
+
+    @Test
+    public void getClosestMatches_renamedAndDeleted_oldWordsNotFound() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new TodoTask("submit report", false));
+        tasks.addTask(new TodoTask("read book", false));
+        tasks.updateName(0, "submit essay");
+        tasks.deleteTaskAtIndex(1);
+
+        assertEquals(0, tasks.getClosestMatches("reprot", 10).size());
+        assertEquals(0, tasks.getClosestMatches("book", 10).size());
+        assertEquals(1, tasks.getClosestMatches("esay", 10).size());
+
+        tasks.addTask(new TodoTask("return book", false));
+        assertEquals(1, tasks.getClosestMatches("bok", 10).size());
+    }
+
+    @Test
+    public void bkTreeRemove_manyWordsRemoved_rebuiltWithoutThem() {
+        BkTree words = new BkTree();
+        for (int i = 0; i < 1000; i++) {
+            words.add("word" + i);
+            if (i >= 10) {
+                words.remove("word" + (i - 10));
+            }
+        }
+        assertEquals(10, words.size());
+        assertTrue(words.nodeCount() <= 2 * words.size() + 1);
+
+        ArrayList<String> found = new ArrayList<>();
+        words.forEachWithin("word995", 1, (word, distance) -> found.add(word));
+        found.sort(null);
+        assertEquals(List.of("word990", "word991", "word992", "word993", "word994", "word995", "word996",
+                "word997", "word998", "word999"), found);
+    }
+
+    @Test
+    public void columnarTaskList_sameTasksAsTaskList() {
+        Random random = new Random(3);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 200; i++) {
+            Task task = randomTask(random, i);
+            if (random.nextBoolean()) {
+                task.mark();
+            }
+            tasks.addTask(task);
+        }
+        ColumnarTaskList columns = new ColumnarTaskList(tasks);
+        tasks.deleteTaskAtIndex(17);
+        columns.deleteTaskAtIndex(17);
+
+        assertEquals(tasks.size(), columns.size());
+        int markedCount = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), columns.get(i).toString());
+            markedCount += tasks.get(i).isMarked() ? 1 : 0;
+        }
+        assertEquals(markedCount, columns.countMarked());
+        assertEquals(markedCount, columns.getTasksMarked(true).size());
+        assertEquals(tasks.size() - markedCount, columns.getTasksMarked(false).size());
+
+        for (long day = FIRST_DAY - 1; day <= FIRST_DAY + DAYS + 1; day++) {
+            DateTime date = new DateTime(day * MINUTES_PER_DAY, true);
+            assertEquals(tasks.getTasksOnDate(date).getTasks().toString(),
+                    columns.getTasksOnDate(date).getTasks().toString(), date.toString());
+        }
+    }
+
+    @Test
+    public void taskTree_randomEdits_sameAsArrayList() {
+        Random random = new Random(11);
+        ArrayList<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            initial.add(new TodoTask("task " + i, false));
+        }
+        ArrayList<Task> expected = new ArrayList<>(initial);
+        TaskTree tree = new TaskTree(initial);
+        for (int i = 0; i < 2000; i++) {
+            int index = random.nextInt(expected.size() + 1);
+            Task task = new TodoTask("added " + i, false);
+            switch (random.nextInt(3)) {
+            case 0:
+                expected.add(index, task);
+                tree.add(index, task);
+                break;
+            case 1:
+                if (index < expected.size()) {
+                    assertEquals(expected.remove(index), tree.remove(index));
+                }
+                break;
+            default:
+                if (index < expected.size()) {
+                    assertEquals(expected.set(index, task), tree.set(index, task));
+                }
+                break;
+            }
+        }
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), tree.get(i));
+        }
+        assertEquals(expected, new ArrayList<>(tree));
+    }
+
+    @Test
+    public void getIndexOfId_afterDeletes_currentPosition() {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 50; i++) {
+            tasks.addTask(new TodoTask("task " + i, false));
+        }
+        long lastId = tasks.get(49).getId();
+        tasks.deleteTaskAtIndex(10);
+        tasks.deleteTaskAtIndex(0);
+        tasks.addTask(new TodoTask("added", false));
+
+        assertEquals(47, tasks.getIndexOfId(lastId));
+        assertEquals(lastId + 1, tasks.get(48).getId());
+        assertEquals(-1, tasks.getIndexOfId(1));
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(i, tasks.getIndexOfId(tasks.get(i).getId()));
+        }
+    }
+
+    @Test
+    public void taskListView_queryResults_originalIndices() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new TodoTask("read book", false));
+        tasks.addTask(new TodoTask("submit report", false));
+        tasks.addTask(new TodoTask("read report", false));
+        tasks.addTask(new TodoTask("return book", false));
+
+        TaskListView found = tasks.getTasksWithWords("report");
+        assertEquals(2, found.size());
+        assertEquals(1, found.getIndex(0));
+        assertEquals(2, found.getIndex(1));
+        assertEquals(tasks.get(2), found.get(1));
+
+        TaskListView lazy = tasks.filter(task -> task.containsInName("book"));
+        assertEquals(3, lazy.getIndex(1));
+        assertEquals(tasks.get(3), lazy.iterator(1).next());
+        assertEquals(List.of(tasks.get(0), tasks.get(3)), lazy.getTasks());
+
+        tasks.deleteTaskAtIndex(0);
+        assertFalse(found.isCurrent());
+        assertEquals("[T][ ] submit report", found.get(0).toString());
+        assertThrows(ConcurrentModificationException.class, () -> lazy.get(0));
+        assertEquals(2, tasks.getTasksContaining("ret").getIndex(0));
+    }
+
+    @Test
+    public void snapshot_concurrentWriter_unchangedAndConsistent() throws InterruptedException {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 1000; i++) {
+            tasks.addTask(randomTask(new Random(i), i));
+        }
+        Thread writer = new Thread(() -> {
+            Random random = new Random(13);
+            for (int i = 0; i < 5000; i++) {
+                int index = random.nextInt(tasks.size());
+                switch (i % 3) {
+                case 0:
+                    tasks.setMarked(index, !tasks.get(index).isMarked());
+                    break;
+                case 1:
+                    tasks.deleteTaskAtIndex(index);
+                    break;
+                default:
+                    tasks.addTask(randomTask(random, i));
+                    break;
+                }
+            }
+        });
+        writer.start();
+        ArrayList<List<Task>> snapshots = new ArrayList<>();
+        ArrayList<String> contents = new ArrayList<>();
+        while (writer.isAlive()) {
+            List<Task> snapshot = tasks.snapshot();
+            snapshots.add(snapshot);
+            contents.add(snapshot.toString());
+            tasks.getTasksOnDate(new DateTime(FIRST_DAY * MINUTES_PER_DAY, true)).size();
+        }
+        writer.join();
+
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(contents.get(i), snapshots.get(i).toString());
+        }
+        assertSameAsScan(tasks);
+    }
+
+    @Test
+    public void undoRedo_randomEdits_sameListsAndIndexes() throws ChaterpillarException {
+        Random random = new Random(21);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 200; i++) {
+            tasks.addTask(randomTask(random, i));
+        }
+        tasks.clearHistory();
+        assertFalse(tasks.undo());
+        tasks.getTasksOnDate(new DateTime(FIRST_DAY * MINUTES_PER_DAY, true)); // builds the indexes
+
+        ArrayList<String> versions = new ArrayList<>();
+        versions.add(tasks.getTasks().toString());
+        for (int i = 0; i < 60; i++) {
+            tasks.beginEdit();
+            for (int change = random.nextInt(3); change >= 0; change--) {
+                int index = random.nextInt(tasks.size());
+                switch (random.nextInt(4)) {
+                case 0:
+                    tasks.addTask(randomTask(random, i));
+                    break;
+                case 1:
+                    tasks.deleteTaskAtIndex(index);
+                    break;
+                case 2:
+                    tasks.setMarked(index, !tasks.get(index).isMarked());
+                    break;
+                default:
+                    tasks.updateName(index, "renamed " + i);
+                    break;
+                }
+            }
+            tasks.endEdit();
+            versions.add(tasks.getTasks().toString());
+        }
+
+        for (int i = versions.size() - 2; i >= 0; i--) {
+            assertTrue(tasks.undo());
+            assertEquals(versions.get(i), tasks.getTasks().toString());
+        }
+        assertFalse(tasks.undo());
+        assertSameAsScan(tasks);
+        for (int i = 1; i < versions.size(); i++) {
+            assertTrue(tasks.redo());
+            assertEquals(versions.get(i), tasks.getTasks().toString());
+        }
+        assertFalse(tasks.redo());
+        assertSameAsScan(tasks);
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(i, tasks.getIndexOfId(tasks.get(i).getId()));
+        }
+
+        tasks.undo();
+        tasks.addTask(new TodoTask("after undo", false));
+        assertFalse(tasks.redo());
+        tasks.setHistoryDepth(2);
+        assertTrue(tasks.undo());
+        assertTrue(tasks.undo());
+        assertFalse(tasks.undo());
+    }
+}